@@ -0,0 +1,39 @@
+package ru.practicum.shareit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in mode that runs every gateway request on its own virtual thread instead of the platform worker pool.
+ * A request spends nearly all its time waiting for the server, and that wait no longer holds a worker.
+ * <p>
+ * HttpClient 4 is the one place on the blocking path that takes monitors. PoolingHttpClientConnectionManager
+ * synchronizes on the connection only for pool bookkeeping, and sockets are read and written outside the
+ * monitor. Waiting for a free pooled connection uses a ReentrantLock condition, which unmounts the thread.
+ * The non-blocking mode hands the wait to the reactive client and does not depend on this setting.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig implements DisposableBean {
+    // Not a bean: an Executor bean would replace Spring Boot's applicationTaskExecutor.
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * Tomcat leaves an executor it was given running, so it is closed here, after the web server has stopped.
+     */
+    @Override
+    public void destroy() {
+        executor.close();
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends each request to the server instance the {@link ServerPool} chooses, and reports back how it went.
+ */
+public class BalancedExchange implements ServerExchange {
+    private final ServerPool pool;
+    private final List<ServerExchange> exchanges;
+
+    public BalancedExchange(ServerPool pool, Function<String, ServerExchange> transport) {
+        this.pool = pool;
+        this.exchanges = pool.getEndpoints().stream()
+                .map(endpoint -> transport.apply(endpoint.getUrl()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, String path, HttpEntity<?> request,
+                                                              @Nullable Map<String, Object> parameters) {
+        ServerEndpoint endpoint = pool.choose();
+        endpoint.getOutstanding().incrementAndGet();
+        CompletableFuture<ResponseEntity<byte[]>> call;
+        try {
+            call = exchanges.get(endpoint.getIndex()).exchange(method, path, request, parameters);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.whenComplete((response, error) -> {
+            endpoint.getOutstanding().decrementAndGet();
+            if (error != null || response.getStatusCode().is5xxServerError()) {
+                pool.failed(endpoint);
+            } else {
+                pool.succeeded(endpoint);
+            }
+        });
+    }
+}
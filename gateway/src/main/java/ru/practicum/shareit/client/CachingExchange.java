@@ -0,0 +1,60 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Revalidating cache in front of another exchange. A GET response with an ETag is stored under the
+ * URL, query parameters and X-Sharer-User-Id of the request; the next identical GET is sent with
+ * If-None-Match and a 304 from the server is answered from memory. Requests other than GET pass through.
+ */
+public class CachingExchange implements ServerExchange {
+    private final String apiPrefix;
+    private final ServerExchange delegate;
+    private final Cache<String, ResponseEntity<byte[]>> cache;
+
+    public CachingExchange(String apiPrefix, ServerExchange delegate, Cache<String, ResponseEntity<byte[]>> cache) {
+        this.apiPrefix = apiPrefix;
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, String path, HttpEntity<?> request,
+                                                              @Nullable Map<String, Object> parameters) {
+        if (method != HttpMethod.GET) {
+            return delegate.exchange(method, path, request, parameters);
+        }
+
+        String key = RequestKeys.of(apiPrefix, path, request, parameters);
+        ResponseEntity<byte[]> cached = cache.getIfPresent(key);
+        HttpEntity<?> outgoing = cached != null ? revalidate(request, cached) : request;
+
+        return delegate.exchange(method, path, outgoing, parameters).thenApply(response -> {
+            if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                return cached;
+            }
+            if (response.getStatusCode() == HttpStatus.OK && response.getHeaders().getETag() != null) {
+                cache.put(key, response);
+            } else if (cached != null) {
+                cache.invalidate(key);
+            }
+            return response;
+        });
+    }
+
+    private static HttpEntity<?> revalidate(HttpEntity<?> request, ResponseEntity<byte[]> cached) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(request.getHeaders());
+        headers.setIfNoneMatch(cached.getHeaders().getETag());
+        return new HttpEntity<>(request.getBody(), headers);
+    }
+}
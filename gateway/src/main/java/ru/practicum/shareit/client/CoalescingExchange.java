@@ -0,0 +1,93 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight for GETs: while a call for the same URL, parameters and user is in flight, further
+ * identical calls wait for its response instead of going to the server. Only calls still in flight
+ * are joined, never finished ones, so a joined response is no older than one the caller would have
+ * fetched itself. A caller that waits longer than the max wait sends its own call.
+ * Requests other than GET pass through.
+ */
+@Slf4j
+public class CoalescingExchange implements ServerExchange {
+    private final String apiPrefix;
+    private final ServerExchange delegate;
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<byte[]>>> inFlight;
+    private final Duration maxWait;
+    private final AtomicLong coalesced;
+    private final Executor fallbackExecutor;
+
+    public CoalescingExchange(String apiPrefix, ServerExchange delegate,
+                              ConcurrentMap<String, CompletableFuture<ResponseEntity<byte[]>>> inFlight,
+                              Duration maxWait, AtomicLong coalesced, Executor fallbackExecutor) {
+        this.apiPrefix = apiPrefix;
+        this.delegate = delegate;
+        this.inFlight = inFlight;
+        this.maxWait = maxWait;
+        this.coalesced = coalesced;
+        this.fallbackExecutor = fallbackExecutor;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, String path, HttpEntity<?> request,
+                                                              @Nullable Map<String, Object> parameters) {
+        if (method != HttpMethod.GET) {
+            return delegate.exchange(method, path, request, parameters);
+        }
+
+        String key = RequestKeys.of(apiPrefix, path, request, parameters);
+        CompletableFuture<ResponseEntity<byte[]>> call = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return join(running, method, path, request, parameters);
+        }
+
+        try {
+            delegate.exchange(method, path, request, parameters).whenComplete((response, error) -> {
+                // Leave the map first, so nobody joins a call that has already finished.
+                inFlight.remove(key, call);
+                if (error != null) {
+                    call.completeExceptionally(error);
+                } else {
+                    call.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+        }
+        return call;
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> join(CompletableFuture<ResponseEntity<byte[]>> running,
+                                                           HttpMethod method, String path, HttpEntity<?> request,
+                                                           @Nullable Map<String, Object> parameters) {
+        // A copy, so the timeout never completes the shared call for everyone else.
+        return running.copy()
+                .orTimeout(maxWait.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionallyComposeAsync(error -> {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (!(cause instanceof TimeoutException)) {
+                        return CompletableFuture.failedFuture(cause);
+                    }
+                    log.warn("Waited {} for {} {} in flight, calling the server directly", maxWait, method, path);
+                    return delegate.exchange(method, path, request, parameters);
+                }, fallbackExecutor);
+    }
+}
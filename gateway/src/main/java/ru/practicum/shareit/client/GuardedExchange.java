@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fails fast with {@link CallNotPermittedException} while the circuit is open and with
+ * {@link BulkheadFullException} once the client has its maximum of calls in flight.
+ * Errors, 5xx responses and slow calls count against the circuit; 4xx responses do not.
+ */
+public class GuardedExchange implements ServerExchange {
+    private final ServerExchange delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public GuardedExchange(ServerExchange delegate, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, String path, HttpEntity<?> request,
+                                                              @Nullable Map<String, Object> parameters) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return CompletableFuture.failedFuture(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            return CompletableFuture.failedFuture(BulkheadFullException.createBulkheadFullException(bulkhead));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<ResponseEntity<byte[]>> call;
+        try {
+            call = delegate.exchange(method, path, request, parameters);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.whenComplete((response, error) -> {
+            bulkhead.onComplete();
+            long duration = System.nanoTime() - start;
+            if (error != null) {
+                circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, error);
+            } else if (response.getStatusCode().is5xxServerError()) {
+                circuitBreaker.onError(duration, TimeUnit.NANOSECONDS,
+                        new HttpServerErrorException(response.getStatusCode()));
+            } else {
+                circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+}
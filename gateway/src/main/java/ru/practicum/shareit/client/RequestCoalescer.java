@@ -0,0 +1,59 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GET calls to the server that are in flight right now, shared by the exchanges of every client.
+ * See {@link CoalescingExchange} for how callers join them.
+ * <p>
+ * A caller that gives up waiting sends its own call from a virtual thread of its own. The timeout fires
+ * on the JDK's single delay scheduler thread, and in blocking mode the call would hold it for a whole
+ * round trip to the server.
+ */
+public class RequestCoalescer implements MeterBinder, DisposableBean {
+    private final boolean enabled;
+    private final Duration maxWait;
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<byte[]>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final ExecutorService fallbackExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("coalescing-fallback-", 0).factory());
+
+    public RequestCoalescer(CoalescingProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.maxWait = properties.getMaxWait();
+    }
+
+    public ServerExchange wrap(String apiPrefix, ServerExchange exchange) {
+        return enabled
+                ? new CoalescingExchange(apiPrefix, exchange, inFlight, maxWait, coalesced, fallbackExecutor)
+                : exchange;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit-server.requests.in-flight", inFlight, ConcurrentMap::size)
+                .description("Distinct GET calls to the server in flight")
+                .register(registry);
+        FunctionCounter.builder("shareit-server.requests.coalesced", coalesced, AtomicLong::get)
+                .description("GET calls answered by joining an identical call already in flight")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        fallbackExecutor.close();
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Identity of a GET as seen by the server: client API prefix, path, query parameters and the user it is made for.
+ */
+final class RequestKeys {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private RequestKeys() {
+    }
+
+    static String of(String apiPrefix, String path, HttpEntity<?> request, @Nullable Map<String, Object> parameters) {
+        StringBuilder key = new StringBuilder(apiPrefix).append(path);
+        if (parameters != null) {
+            key.append(' ').append(new TreeMap<>(parameters));
+        }
+        return key.append(' ').append(request.getHeaders().getFirst(USER_HEADER)).toString();
+    }
+}
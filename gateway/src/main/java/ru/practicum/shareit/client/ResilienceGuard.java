@@ -0,0 +1,66 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+/**
+ * One circuit breaker and one bulkhead per client, named after the last segment of its API prefix.
+ * A slow or failing endpoint group can then only tie up its own share of gateway threads.
+ */
+@Slf4j
+public class ResilienceGuard implements MeterBinder {
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+
+    public ResilienceGuard(ResilienceProperties properties) {
+        this.circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(properties.getFailureRateThreshold())
+                .slowCallRateThreshold(properties.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(properties.getSlowCallDurationThreshold())
+                .slidingWindowSize(properties.getSlidingWindowSize())
+                .minimumNumberOfCalls(properties.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(properties.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(properties.getPermittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build());
+        this.bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    public ServerExchange wrap(String apiPrefix, ServerExchange exchange) {
+        String name = apiPrefix.substring(apiPrefix.lastIndexOf('/') + 1);
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(name);
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Circuit breaker {}: {}", name, event.getStateTransition()));
+        return new GuardedExchange(exchange, circuitBreaker, bulkheads.bulkhead(name));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(registry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(registry);
+        circuitBreakers.getAllCircuitBreakers().forEach(circuitBreaker -> countTransitions(circuitBreaker, registry));
+        circuitBreakers.getEventPublisher().onEntryAdded(event -> countTransitions(event.getAddedEntry(), registry));
+    }
+
+    private static void countTransitions(CircuitBreaker circuitBreaker, MeterRegistry registry) {
+        circuitBreaker.getEventPublisher().onStateTransition(event -> registry.counter(
+                "shareit-server.circuit-breaker.transitions",
+                "name", circuitBreaker.getName(),
+                "from", event.getStateTransition().getFromState().name(),
+                "to", event.getStateTransition().getToState().name()).increment());
+    }
+}
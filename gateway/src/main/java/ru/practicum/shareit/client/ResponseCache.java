@@ -0,0 +1,43 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Server responses that carried an ETag, kept in gateway memory and bounded by their total size.
+ * Shared by the exchanges of every client; see {@link CachingExchange} for how entries are used.
+ */
+public class ResponseCache implements MeterBinder {
+    // Rough cost of the entity, headers and map entry on top of the key and body bytes.
+    private static final int ENTRY_OVERHEAD = 512;
+
+    private final boolean enabled;
+    private final Cache<String, ResponseEntity<byte[]>> cache;
+
+    public ResponseCache(ResponseCacheProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher(ResponseCache::weigh)
+                .recordStats()
+                .build();
+    }
+
+    public ServerExchange wrap(String apiPrefix, ServerExchange exchange) {
+        return enabled ? new CachingExchange(apiPrefix, exchange, cache) : exchange;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "shareit-server.responses");
+    }
+
+    private static int weigh(String key, ResponseEntity<byte[]> response) {
+        byte[] body = response.getBody();
+        return ENTRY_OVERHEAD + 2 * key.length() + (body != null ? body.length : 0);
+    }
+}
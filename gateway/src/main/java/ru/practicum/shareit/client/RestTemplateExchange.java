@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Blocking exchange: the request runs on the calling thread and the returned future is already complete.
+ */
+public class RestTemplateExchange implements ServerExchange {
+    private final RestTemplate rest;
+
+    public RestTemplateExchange(RestTemplate rest) {
+        this.rest = rest;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, String path, HttpEntity<?> request,
+                                                              @Nullable Map<String, Object> parameters) {
+        ResponseEntity<byte[]> response;
+        try {
+            if (parameters != null) {
+                response = rest.exchange(path, method, request, byte[].class, parameters);
+            } else {
+                response = rest.exchange(path, method, request, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            response = ResponseEntity.status(e.getStatusCode())
+                    .headers(e.getResponseHeaders())
+                    .body(e.getResponseBodyAsByteArray());
+        }
+        return CompletableFuture.completedFuture(response);
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One server instance with the state {@link ServerPool} balances on.
+ */
+@Getter
+public class ServerEndpoint {
+    private final int index;
+    private final String url;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveErrors = new AtomicInteger();
+    private volatile boolean healthy = true;
+    private volatile long ejectedUntil;
+    // Only touched by the health check thread.
+    private int healthCheckFailures;
+    private int healthCheckSuccesses;
+
+    ServerEndpoint(int index, String url) {
+        this.index = index;
+        this.url = url;
+    }
+
+    boolean isAvailable(long now) {
+        return healthy && now - ejectedUntil >= 0;
+    }
+
+    boolean isEjected(long now) {
+        return now - ejectedUntil < 0;
+    }
+
+    void eject(long until) {
+        ejectedUntil = until;
+    }
+
+    boolean healthCheckPassed(int healthyThreshold) {
+        healthCheckFailures = 0;
+        if (!healthy && ++healthCheckSuccesses >= healthyThreshold) {
+            healthy = true;
+            return true;
+        }
+        return false;
+    }
+
+    boolean healthCheckFailed(int unhealthyThreshold) {
+        healthCheckSuccesses = 0;
+        if (healthy && ++healthCheckFailures >= unhealthyThreshold) {
+            healthy = false;
+            return true;
+        }
+        return false;
+    }
+}
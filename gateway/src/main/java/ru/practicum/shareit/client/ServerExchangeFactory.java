@@ -0,0 +1,8 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Creates the exchange a client uses for every request under its API prefix, such as /items.
+ */
+public interface ServerExchangeFactory {
+    ServerExchange create(String apiPrefix);
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pooled HTTP client for all calls to the ShareIt server, shared by every {@link BaseClient}.
+ * The shareit-server.http.mode property selects the blocking or the reactive transport, and the
+ * {@link ServerPool} balances requests over the server instances listed in shareit-server.url.
+ * Each client's {@link BalancedExchange} is wrapped, from the inside out, in its {@link ResilienceGuard}, the
+ * {@link WireFormatExchange}, the gateway {@link ResponseCache} and the {@link RequestCoalescer}.
+ * Coalescing outside the cache means a caller only ever joins a response that is complete for it.
+ */
+@Configuration
+@EnableConfigurationProperties({ServerHttpProperties.class, ServerPoolProperties.class, ResponseCacheProperties.class,
+        CoalescingProperties.class, ResilienceProperties.class})
+public class ServerHttpConfig {
+    private static final String POOL_NAME = "shareit-server";
+
+    @Bean
+    public ServerPool serverPool(ServerPoolProperties properties) {
+        return new ServerPool(properties);
+    }
+
+    @Bean
+    public ResponseCache serverResponseCache(ResponseCacheProperties properties) {
+        return new ResponseCache(properties);
+    }
+
+    @Bean
+    public ResilienceGuard serverResilienceGuard(ResilienceProperties properties) {
+        return new ResilienceGuard(properties);
+    }
+
+    @Bean
+    public RequestCoalescer serverRequestCoalescer(CoalescingProperties properties) {
+        return new RequestCoalescer(properties);
+    }
+
+    @Bean
+    public ServerExchangeFactory serverExchangeFactory(ServerTransport serverTransport,
+                                                       ServerPool serverPool,
+                                                       ServerHttpProperties properties,
+                                                       ResilienceGuard serverResilienceGuard,
+                                                       ResponseCache serverResponseCache,
+                                                       RequestCoalescer serverRequestCoalescer) {
+        return apiPrefix -> {
+            ServerExchange exchange = serverResilienceGuard.wrap(apiPrefix,
+                    new BalancedExchange(serverPool, serverUrl -> serverTransport.create(serverUrl + apiPrefix)));
+            if (properties.getWireFormat() == ServerHttpProperties.WireFormat.SMILE) {
+                exchange = new WireFormatExchange(exchange);
+            }
+            return serverRequestCoalescer.wrap(apiPrefix, serverResponseCache.wrap(apiPrefix, exchange));
+        };
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "shareit-server.http.mode", havingValue = "blocking", matchIfMissing = true)
+    static class BlockingTransport {
+
+        @Bean
+        public PoolingHttpClientConnectionManager serverConnectionManager(ServerHttpProperties properties) {
+            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+            connectionManager.setMaxTotal(properties.getMaxConnections());
+            connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+            connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+            return connectionManager;
+        }
+
+        @Bean
+        public CloseableHttpClient serverHttpClient(PoolingHttpClientConnectionManager serverConnectionManager,
+                                                    ServerHttpProperties properties) {
+            RequestConfig requestConfig = RequestConfig.custom()
+                    .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                    .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                    .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                    .build();
+            long keepAlive = properties.getKeepAlive().toMillis();
+            return HttpClients.custom()
+                    .setConnectionManager(serverConnectionManager)
+                    .setDefaultRequestConfig(requestConfig)
+                    .setKeepAliveStrategy((response, context) -> {
+                        long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                                .getKeepAliveDuration(response, context);
+                        return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive) : keepAlive;
+                    })
+                    .evictExpiredConnections()
+                    .evictIdleConnections(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .build();
+        }
+
+        @Bean
+        public ClientHttpRequestFactory serverRequestFactory(CloseableHttpClient serverHttpClient) {
+            return new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+        }
+
+        @Bean
+        public MeterBinder serverConnectionPoolMetrics(PoolingHttpClientConnectionManager serverConnectionManager) {
+            return new PoolingHttpClientConnectionManagerMetricsBinder(serverConnectionManager, POOL_NAME);
+        }
+
+        @Bean
+        public ServerTransport serverTransport(RestTemplateBuilder builder,
+                                               ClientHttpRequestFactory serverRequestFactory) {
+            return baseUrl -> new RestTemplateExchange(builder
+                    .uriTemplateHandler(new DefaultUriBuilderFactory(baseUrl))
+                    .requestFactory(() -> serverRequestFactory)
+                    .build());
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "shareit-server.http.mode", havingValue = "reactive")
+    static class ReactiveTransport {
+
+        @Bean(destroyMethod = "dispose")
+        public ConnectionProvider serverConnectionProvider(ServerHttpProperties properties) {
+            return ConnectionProvider.builder(POOL_NAME)
+                    .maxConnections(properties.getMaxConnections())
+                    .pendingAcquireMaxCount(-1)
+                    .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                    .maxIdleTime(properties.getIdleTimeout())
+                    .evictInBackground(properties.getIdleTimeout())
+                    .metrics(true)
+                    .build();
+        }
+
+        @Bean
+        public ServerTransport serverTransport(WebClient.Builder builder,
+                                               ConnectionProvider serverConnectionProvider,
+                                               ServerHttpProperties properties) {
+            HttpClient httpClient = HttpClient.create(serverConnectionProvider)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                    .responseTimeout(properties.getReadTimeout());
+            ReactorClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
+            return baseUrl -> new WebClientExchange(builder.clone()
+                    .uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl))
+                    .clientConnector(connector)
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The server instances behind the gateway, shared by the clients.
+ * <p>
+ * Each request goes to the available instance with the fewest requests outstanding; ties rotate.
+ * An instance is unavailable while its actuator health check fails, or while it is ejected after
+ * too many consecutive errors or 5xx responses. Ejection never takes out more than the configured
+ * share of instances, and when none is available requests are spread over all of them.
+ */
+@Slf4j
+public class ServerPool implements MeterBinder, DisposableBean {
+    private final List<ServerEndpoint> endpoints = new ArrayList<>();
+    private final ServerPoolProperties.HealthCheck healthCheck;
+    private final ServerPoolProperties.OutlierDetection outlierDetection;
+    private final AtomicInteger rotation = new AtomicInteger();
+    private final long origin = System.nanoTime();
+    private final ScheduledExecutorService healthChecker;
+    private final HttpClient healthClient;
+
+    public ServerPool(ServerPoolProperties properties) {
+        if (properties.getUrl().isEmpty()) {
+            throw new IllegalStateException("shareit-server.url must list at least one server");
+        }
+        for (String url : properties.getUrl()) {
+            String trimmed = url.trim();
+            endpoints.add(new ServerEndpoint(endpoints.size(),
+                    trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed));
+        }
+        this.healthCheck = properties.getHealthCheck();
+        this.outlierDetection = properties.getOutlierDetection();
+
+        if (healthCheck.isEnabled()) {
+            healthClient = HttpClient.newBuilder().connectTimeout(healthCheck.getTimeout()).build();
+            healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "shareit-server-health");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = healthCheck.getInterval().toMillis();
+            healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            healthClient = null;
+            healthChecker = null;
+        }
+    }
+
+    public List<ServerEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public ServerEndpoint choose() {
+        int size = endpoints.size();
+        if (size == 1) {
+            return endpoints.get(0);
+        }
+        long now = now();
+        int start = Math.floorMod(rotation.getAndIncrement(), size);
+        ServerEndpoint best = null;
+        ServerEndpoint bestOfAll = null;
+        for (int i = 0; i < size; i++) {
+            ServerEndpoint endpoint = endpoints.get((start + i) % size);
+            int outstanding = endpoint.getOutstanding().get();
+            if (bestOfAll == null || outstanding < bestOfAll.getOutstanding().get()) {
+                bestOfAll = endpoint;
+            }
+            if (endpoint.isAvailable(now) && (best == null || outstanding < best.getOutstanding().get())) {
+                best = endpoint;
+            }
+        }
+        return best != null ? best : bestOfAll;
+    }
+
+    public void succeeded(ServerEndpoint endpoint) {
+        endpoint.getConsecutiveErrors().set(0);
+    }
+
+    public void failed(ServerEndpoint endpoint) {
+        if (endpoint.getConsecutiveErrors().incrementAndGet() < outlierDetection.getConsecutiveErrors()) {
+            return;
+        }
+        long now = now();
+        long ejected = endpoints.stream().filter(e -> e.isEjected(now)).count();
+        if ((ejected + 1) * 100 > (long) endpoints.size() * outlierDetection.getMaxEjectedPercent()) {
+            return;
+        }
+        endpoint.getConsecutiveErrors().set(0);
+        endpoint.eject(now + outlierDetection.getEjectionTime().toNanos());
+        log.warn("Server {} ejected for {} after {} consecutive errors", endpoint.getUrl(),
+                outlierDetection.getEjectionTime(), outlierDetection.getConsecutiveErrors());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ServerEndpoint endpoint : endpoints) {
+            Gauge.builder("shareit-server.endpoint.outstanding", endpoint, e -> e.getOutstanding().get())
+                    .tag("endpoint", endpoint.getUrl())
+                    .register(registry);
+            Gauge.builder("shareit-server.endpoint.available", endpoint, e -> e.isAvailable(now()) ? 1 : 0)
+                    .tag("endpoint", endpoint.getUrl())
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+    }
+
+    private void checkHealth() {
+        for (ServerEndpoint endpoint : endpoints) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint.getUrl() + healthCheck.getPath()))
+                    .timeout(healthCheck.getTimeout())
+                    .GET()
+                    .build();
+            boolean passed;
+            try {
+                passed = healthClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                passed = false;
+            }
+            if (passed && endpoint.healthCheckPassed(healthCheck.getHealthyThreshold())) {
+                log.info("Server {} is healthy again", endpoint.getUrl());
+            } else if (!passed && endpoint.healthCheckFailed(healthCheck.getUnhealthyThreshold())) {
+                log.warn("Server {} failed {} health checks, taken out of rotation", endpoint.getUrl(),
+                        healthCheck.getUnhealthyThreshold());
+            }
+        }
+    }
+
+    private long now() {
+        return System.nanoTime() - origin;
+    }
+}
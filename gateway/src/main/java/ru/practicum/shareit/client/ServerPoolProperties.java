@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server")
+public class ServerPoolProperties {
+    /**
+     * Server instances, comma separated.
+     */
+    private List<String> url = new ArrayList<>();
+    private HealthCheck healthCheck = new HealthCheck();
+    private OutlierDetection outlierDetection = new OutlierDetection();
+
+    @Getter
+    @Setter
+    public static class HealthCheck {
+        private boolean enabled = true;
+        private String path = "/actuator/health";
+        private Duration interval = Duration.ofSeconds(5);
+        private Duration timeout = Duration.ofSeconds(1);
+        private int unhealthyThreshold = 2;
+        private int healthyThreshold = 1;
+    }
+
+    @Getter
+    @Setter
+    public static class OutlierDetection {
+        private int consecutiveErrors = 5;
+        private Duration ejectionTime = Duration.ofSeconds(30);
+        private int maxEjectedPercent = 50;
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Creates the undecorated exchange of the selected transport mode for one base URL.
+ */
+public interface ServerTransport {
+    ServerExchange create(String baseUrl);
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking exchange: the future completes on a Netty event loop thread once the response body is read.
+ */
+public class WebClientExchange implements ServerExchange {
+    private final WebClient webClient;
+
+    public WebClientExchange(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, String path, HttpEntity<?> request,
+                                                              @Nullable Map<String, Object> parameters) {
+        WebClient.RequestBodySpec spec = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(request.getHeaders()));
+        WebClient.RequestHeadersSpec<?> requestSpec = request.hasBody() ? spec.bodyValue(request.getBody()) : spec;
+        return requestSpec.exchangeToMono(response -> response.toEntity(byte[].class)).toFuture();
+    }
+}
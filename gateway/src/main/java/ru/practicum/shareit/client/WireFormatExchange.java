@@ -0,0 +1,80 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asks the server for Smile, the binary form of JSON, on the internal hop and turns it back into
+ * JSON for the gateway's own clients. The conversion streams tokens from one format to the other
+ * without binding any objects. A server that cannot produce Smile answers in JSON, which passes through.
+ * <p>
+ * The transcoding still reads and rewrites every Smile body, which gives up the raw-bytes passthrough
+ * the gateway otherwise uses. The smaller bodies on the internal hop only pay off when that link, not
+ * gateway CPU, is the bottleneck, so the gateway asks for JSON unless
+ * {@code shareit-server.http.wire-format=smile} is set.
+ */
+public class WireFormatExchange implements ServerExchange {
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    private static final List<MediaType> ACCEPT = List.of(
+            APPLICATION_SMILE,
+            new MediaType(MediaType.APPLICATION_JSON, Map.of("q", "0.9")));
+    private static final SmileFactory SMILE_FACTORY = new SmileFactory();
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ServerExchange delegate;
+
+    public WireFormatExchange(ServerExchange delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, String path, HttpEntity<?> request,
+                                                              @Nullable Map<String, Object> parameters) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(request.getHeaders());
+        headers.setAccept(ACCEPT);
+        return delegate.exchange(method, path, new HttpEntity<>(request.getBody(), headers), parameters)
+                .thenApply(WireFormatExchange::toJson);
+    }
+
+    private static ResponseEntity<byte[]> toJson(ResponseEntity<byte[]> response) {
+        MediaType contentType = response.getHeaders().getContentType();
+        byte[] body = response.getBody();
+        if (body == null || contentType == null || !APPLICATION_SMILE.isCompatibleWith(contentType)) {
+            return response;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new ResponseEntity<>(transcode(body), headers, response.getStatusCode());
+    }
+
+    private static byte[] transcode(byte[] smile) {
+        ByteArrayOutputStream json = new ByteArrayOutputStream(smile.length * 2);
+        try (JsonParser parser = SMILE_FACTORY.createParser(smile);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(json)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed Smile response from the server", e);
+        }
+        return json.toByteArray();
+    }
+}
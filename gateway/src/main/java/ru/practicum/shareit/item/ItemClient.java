@@ -1,17 +1,16 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerExchangeFactory;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -19,49 +18,51 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ServerExchangeFactory exchangeFactory) {
+        super(exchangeFactory.create(API_PREFIX));
     }
 
-    public ResponseEntity<Object> addItem(Long userId, ItemRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> addItem(Long userId, ItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemRequestDto itemRequestDto) {
+    public CompletableFuture<ResponseEntity<Object>> updateItem(Long userId, Long itemId, ItemRequestDto itemRequestDto) {
         return patch("/" + itemId, userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getAllItems(Long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public CompletableFuture<ResponseEntity<Object>> getAllItems(Long userId, Integer from, Integer size, Boolean comments, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
-                "size", size
-        );
-        return get("?from={from}&size={size}", userId, parameters);
+                "size", size,
+                "comments", comments
+        ));
+        String path = "?from={from}&size={size}&comments={comments}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        return get(path, userId, parameters);
     }
 
-    public ResponseEntity<Object> getItem(Long userId, Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> getItem(Long userId, Long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> searchItem(Long userId, Integer from, Integer size, String text) {
+    public CompletableFuture<ResponseEntity<Object>> searchItem(Long userId, Integer from, Integer size, String text, Boolean comments) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size,
-                "text", text
+                "text", text,
+                "comments", comments
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/search?text={text}&from={from}&size={size}&comments={comments}", userId, parameters);
     }
 
-    public ResponseEntity<Object> deleteItem(Long userId, Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteItem(Long userId, Long itemId) {
         return delete("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
+    public CompletableFuture<ResponseEntity<Object>> addComment(Long userId, Long itemId, CommentDto commentDto) {
         String path = String.format("/%s/comment", itemId);
         return post(path, userId, commentDto);
     }
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global limit on requests in flight that only applies while responses are slow. Latency is an
+ * exponentially weighted moving average of gateway response times, which are dominated by the
+ * server call; while it is under the threshold no request is shed.
+ */
+public class LoadShedder {
+    // Weight of the newest sample is 1/8, as in TCP round-trip time estimation.
+    private static final int SMOOTHING_SHIFT = 3;
+
+    private final int maxConcurrentRequests;
+    private final long latencyThreshold;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong latency = new AtomicLong();
+
+    public LoadShedder(int maxConcurrentRequests, long latencyThresholdNanos) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.latencyThreshold = latencyThresholdNanos;
+    }
+
+    public boolean tryEnter() {
+        if (inFlight.incrementAndGet() > maxConcurrentRequests && latency.get() > latencyThreshold) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void exit(long durationNanos) {
+        inFlight.decrementAndGet();
+        latency.accumulateAndGet(durationNanos, (average, sample) -> average + ((sample - average) >> SMOOTHING_SHIFT));
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getLatencyNanos() {
+        return latency.get();
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimitProperties properties, MeterRegistry registry) {
+        RateLimitFilter filter = new RateLimitFilter(properties, registry);
+        LoadShedder shedder = filter.getShedder();
+        if (shedder != null) {
+            Gauge.builder("gateway.load-shedding.in-flight", shedder, LoadShedder::getInFlight)
+                    .description("Requests in flight through the gateway")
+                    .register(registry);
+            Gauge.builder("gateway.load-shedding.latency", shedder, s -> s.getLatencyNanos() / 1e9)
+                    .description("Moving average of gateway response time")
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+        return filter;
+    }
+}
@@ -0,0 +1,187 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Runs in front of the controllers. Answers 429 with Retry-After once a user has spent the budget of
+ * the first rule matching the request, and 503 with Retry-After when the {@link LoadShedder} refuses it.
+ * Users are told apart by X-Sharer-User-Id, or by remote address when the header is missing.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String ACTUATOR_PATH = "/actuator";
+
+    private final List<LimitedRule> rules;
+    @Nullable
+    private final LoadShedder shedder;
+    private final long sheddingRetryAfterSeconds;
+    private final MeterRegistry registry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper pathHelper = new UrlPathHelper();
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry registry) {
+        this.rules = properties.getRules().stream()
+                .map(rule -> new LimitedRule(rule,
+                        new TokenBuckets(properties.getStripes(), rule.getCapacity(), rule.getPerSecond())))
+                .collect(Collectors.toList());
+        RateLimitProperties.Shedding shedding = properties.getShedding();
+        this.shedder = shedding.isEnabled()
+                ? new LoadShedder(shedding.getMaxConcurrentRequests(), shedding.getLatencyThreshold().toNanos())
+                : null;
+        this.sheddingRetryAfterSeconds = Math.max(1, shedding.getRetryAfter().toSeconds());
+        this.registry = registry;
+    }
+
+    @Nullable
+    public LoadShedder getShedder() {
+        return shedder;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return path(request).startsWith(ACTUATOR_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        LimitedRule rule = match(request);
+        if (rule != null) {
+            long wait = rule.buckets.tryAcquire(clientKey(request));
+            if (wait > 0) {
+                registry.counter("gateway.rate-limit.rejected", "rule", rule.name).increment();
+                log.debug("Rate limit {} exceeded by {}", rule.name, request.getHeader(USER_HEADER));
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, toSecondsRoundedUp(wait),
+                        String.format("Rate limit %s exceeded", rule.name));
+                return;
+            }
+        }
+
+        if (shedder == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!shedder.tryEnter()) {
+            registry.counter("gateway.load-shedding.rejected").increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, sheddingRetryAfterSeconds,
+                    "Gateway is overloaded, try again later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+            if (async) {
+                request.getAsyncContext().addListener(new ExitOnComplete(start));
+            }
+        } finally {
+            if (!async) {
+                shedder.exit(System.nanoTime() - start);
+            }
+        }
+    }
+
+    @Nullable
+    private LimitedRule match(HttpServletRequest request) {
+        String path = path(request);
+        for (LimitedRule rule : rules) {
+            if ((rule.method == null || rule.method.equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(rule.pattern, path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private String path(HttpServletRequest request) {
+        return pathHelper.getPathWithinApplication(request);
+    }
+
+    private static long clientKey(HttpServletRequest request) {
+        String userId = request.getHeader(USER_HEADER);
+        if (userId != null) {
+            try {
+                return Long.parseLong(userId.trim());
+            } catch (NumberFormatException e) {
+                return userId.hashCode();
+            }
+        }
+        // Negative, so anonymous callers never share a bucket with a user id.
+        return -1L - (request.getRemoteAddr().hashCode() & 0xFFFFFFFFL);
+    }
+
+    private static long toSecondsRoundedUp(long nanos) {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        return (nanos + second - 1) / second;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+
+    private static class LimitedRule {
+        private final String name;
+        @Nullable
+        private final String method;
+        private final String pattern;
+        private final TokenBuckets buckets;
+
+        LimitedRule(RateLimitProperties.Rule rule, TokenBuckets buckets) {
+            this.name = rule.getName();
+            this.method = rule.getMethod() == null || rule.getMethod().isBlank() ? null : rule.getMethod();
+            this.pattern = rule.getPattern();
+            this.buckets = buckets;
+        }
+    }
+
+    private class ExitOnComplete implements AsyncListener {
+        private final long start;
+
+        ExitOnComplete(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            shedder.exit(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
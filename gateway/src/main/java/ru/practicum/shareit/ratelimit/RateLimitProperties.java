@@ -0,0 +1,47 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    /**
+     * Buckets per rule; users hashing to the same stripe share a budget. Must be a power of two.
+     */
+    private int stripes = 1 << 16;
+    /**
+     * Checked in order, the first rule matching the request applies.
+     */
+    private List<Rule> rules = new ArrayList<>();
+    private Shedding shedding = new Shedding();
+
+    @Getter
+    @Setter
+    public static class Rule {
+        private String name;
+        /**
+         * HTTP method the rule applies to, any method when empty.
+         */
+        private String method;
+        private String pattern;
+        private int capacity;
+        private double perSecond;
+    }
+
+    @Getter
+    @Setter
+    public static class Shedding {
+        private boolean enabled = true;
+        private int maxConcurrentRequests = 400;
+        private Duration latencyThreshold = Duration.ofSeconds(1);
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
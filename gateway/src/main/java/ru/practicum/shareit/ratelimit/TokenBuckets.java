@@ -0,0 +1,52 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Striped, lock-free token buckets for one rate limit rule, kept as a generic cell rate algorithm:
+ * each stripe holds a single theoretical arrival time, so taking a token is one compare-and-set.
+ * Memory is fixed by the number of stripes however many users there are.
+ */
+public class TokenBuckets {
+    private final AtomicLongArray arrivals;
+    private final int mask;
+    private final long interval;
+    private final long burst;
+    private final long origin = System.nanoTime();
+
+    public TokenBuckets(int stripes, int capacity, double perSecond) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripes must be a power of two: " + stripes);
+        }
+        this.arrivals = new AtomicLongArray(stripes);
+        this.mask = stripes - 1;
+        this.interval = (long) (1_000_000_000L / perSecond);
+        this.burst = interval * capacity;
+    }
+
+    /**
+     * Takes a token for the key.
+     *
+     * @return 0 when a token was taken, otherwise nanoseconds until the next one is available
+     */
+    public long tryAcquire(long key) {
+        int stripe = stripe(key);
+        long now = System.nanoTime() - origin;
+        while (true) {
+            long arrival = arrivals.get(stripe);
+            long next = Math.max(arrival, now) + interval;
+            long wait = next - now - burst;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrivals.compareAndSet(stripe, arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private int stripe(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
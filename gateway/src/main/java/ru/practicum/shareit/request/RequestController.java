@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestRequestDto;
 
 import javax.validation.constraints.Min;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping("/requests")
@@ -19,53 +20,46 @@ public class RequestController {
     private final RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> addRequest(@RequestBody @Validated ItemRequestRequestDto itemRequestRequestDto,
-                                             @RequestHeader(value = "X-Sharer-User-Id") @Min(value = 1,
-                                                     message = "User id should be more than 0") Long requesterId) {
+    public CompletableFuture<ResponseEntity<Object>> addRequest(@RequestBody @Validated ItemRequestRequestDto itemRequestRequestDto,
+                                                                @RequestHeader(value = "X-Sharer-User-Id") @Min(value = 1,
+                                                                        message = "User id should be more than 0") Long requesterId) {
 
         log.info("Request {} received from user id {}", itemRequestRequestDto, requesterId);
-        ResponseEntity<Object> response = requestClient.addRequest(requesterId, itemRequestRequestDto);
-        log.info("Response: {}", response);
-        return response;
+        return requestClient.addRequest(requesterId, itemRequestRequestDto);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> findRequest(@PathVariable @Min(value = 1,
+    public CompletableFuture<ResponseEntity<Object>> findRequest(@PathVariable @Min(value = 1,
             message = "Request id should be more than 0") Long requestId,
-                                              @RequestHeader(value = "X-Sharer-User-Id") @Min(value = 1,
-                                                      message = "User id should be more than 0") Long userId) {
+                                                                 @RequestHeader(value = "X-Sharer-User-Id") @Min(value = 1,
+                                                                         message = "User id should be more than 0") Long userId) {
         log.info("Looking for request id {} by user {}", requestId, userId);
-        ResponseEntity<Object> response = requestClient.findRequest(userId, requestId);
-        log.info("Response: {}", response);
-        return response;
+        return requestClient.findRequest(userId, requestId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwnRequests(@RequestHeader(value = "X-Sharer-User-Id") @Min(value = 1,
+    public CompletableFuture<ResponseEntity<Object>> getOwnRequests(@RequestHeader(value = "X-Sharer-User-Id") @Min(value = 1,
             message = "User id should be more than 0") Long userId,
-                                                 @RequestParam(defaultValue = "0") @Min(value = 0,
-                                                         message = "Parameter 'from' must be more than 0") int from,
-                                                 @RequestParam(defaultValue = "10") @Min(value = 0,
-                                                         message = "Parameter 'size' must be more than 0") int size) {
+                                                                    @RequestParam(defaultValue = "0") @Min(value = 0,
+                                                                            message = "Parameter 'from' must be more than 0") int from,
+                                                                    @RequestParam(defaultValue = "10") @Min(value = 0,
+                                                                            message = "Parameter 'size' must be more than 0") int size) {
 
         log.info("Looking for requests from user id {}. Paging from {}, size {}.", userId, from, size);
-        ResponseEntity<Object> response = requestClient.getOwnRequests(userId, from, size);
-        log.info("Response: {}", response);
-        return response;
+        return requestClient.getOwnRequests(userId, from, size);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getRequests(
+    public CompletableFuture<ResponseEntity<Object>> getRequests(
             @RequestHeader(value = "X-Sharer-User-Id") @Min(value = 1,
-                    message = "User id should be more than 0") Long userId,
+                                       message = "User id should be more than 0") Long userId,
             @RequestParam(defaultValue = "0") @Min(value = 0,
-                    message = "Parameter 'from' must be more than 0") int from,
+                                       message = "Parameter 'from' must be more than 0") int from,
             @RequestParam(defaultValue = "10") @Min(value = 0,
-                    message = "Parameter 'size' must be more than 0") int size) {
+                                       message = "Parameter 'size' must be more than 0") int size,
+            @RequestParam(required = false) String after) {
 
         log.info("Looking for all requests from {}, size {}", from, size);
-        ResponseEntity<Object> response = requestClient.getAllRequests(userId, from, size);
-        log.info("Response: {}", response);
-        return response;
+        return requestClient.getAllRequests(userId, from, size, after);
     }
 }
@@ -11,6 +11,7 @@ import ru.practicum.shareit.validation.ValidationGroups;
 
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping("/users")
@@ -22,49 +23,39 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> addUser(@NotNull @Validated(ValidationGroups.Create.class)
-                                          @RequestBody UserRequestDto userRequestDto) {
+    public CompletableFuture<ResponseEntity<Object>> addUser(@NotNull @Validated(ValidationGroups.Create.class)
+                                                             @RequestBody UserRequestDto userRequestDto) {
         log.info("Adding user {}", userRequestDto);
-        ResponseEntity<Object> response = userClient.addUser(userRequestDto);
-        log.info("Response: {}", response);
-        return response;
+        return userClient.addUser(userRequestDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@NotNull @Validated(ValidationGroups.Update.class)
-                                             @RequestBody UserRequestDto userRequestDto,
-                                             @PathVariable @Min(value = 1,
-                                                     message = "User ID must be more than 0") Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> updateUser(@NotNull @Validated(ValidationGroups.Update.class)
+                                                                @RequestBody UserRequestDto userRequestDto,
+                                                                @PathVariable @Min(value = 1,
+                                                                        message = "User ID must be more than 0") Long userId) {
 
         log.info("Updating user id {} with {}", userId, userRequestDto);
-        ResponseEntity<Object> response = userClient.updateUser(userId, userRequestDto);
-        log.info("Response: {}", response);
-        return response;
+        return userClient.updateUser(userId, userRequestDto);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUser(@PathVariable
-                                          @Min(value = 1, message = "User ID must be more than 0") Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getUser(@PathVariable
+                                                             @Min(value = 1, message = "User ID must be more than 0") Long userId) {
         log.info("Looking for user id {}", userId);
-        ResponseEntity<Object> response = userClient.getUser(userId);
-        log.info("Response: {}", response);
-        return response;
+        return userClient.getUser(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public CompletableFuture<ResponseEntity<Object>> getAllUsers() {
         log.info("Getting all users");
-        ResponseEntity<Object> response = userClient.getAllUsers();
-        log.info("Response: {}", response);
-        return response;
+        return userClient.getAllUsers();
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable
-                                             @Min(value = 1, message = "User ID must be more than 0") Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteUser(@PathVariable
+                                                                @Min(value = 1, message = "User ID must be more than 0") Long userId) {
         log.info("Deleting user id {}", userId);
-        ResponseEntity<Object> response = userClient.deleteUser(userId);
-        log.info("Response: {}", response);
-        return response;
+        return userClient.deleteUser(userId);
     }
 }
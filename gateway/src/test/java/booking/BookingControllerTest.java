@@ -20,6 +20,7 @@ import ru.practicum.shareit.handler.ErrorHandler;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -59,7 +60,7 @@ public class BookingControllerTest {
     @Test
     public void addBooking_Normal() {
         when(bookingClient.bookItem(anyLong(), any(BookingRequestDto.class))).thenReturn(
-                new ResponseEntity<>(new BookingRequestDto(), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(new BookingRequestDto(), HttpStatus.OK)));
 
         mockMvc.perform(post("/bookings")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -136,7 +137,7 @@ public class BookingControllerTest {
     @Test
     public void getBooking_Normal() {
         when(bookingClient.getBooking(anyLong(), anyLong())).thenReturn(
-                new ResponseEntity<>(new BookingRequestDto(), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(new BookingRequestDto(), HttpStatus.OK)));
 
         mockMvc.perform(get("/bookings/" + bookingId)
                         .header("X-Sharer-User-Id", userId))
@@ -171,7 +172,7 @@ public class BookingControllerTest {
     @Test
     public void getUserBooking_Normal() {
         when(bookingClient.getBooking(anyLong(), anyLong())).thenReturn(
-                new ResponseEntity<>(List.of(bookingRequestDto), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(List.of(bookingRequestDto), HttpStatus.OK)));
 
         mockMvc.perform(get("/bookings")
                         .param("state", state)
@@ -185,7 +186,7 @@ public class BookingControllerTest {
     @Test
     public void getUserBooking_StateIsNullOrEmpty() {
         when(bookingClient.getBooking(anyLong(), anyLong())).thenReturn(
-                new ResponseEntity<>(List.of(bookingRequestDto), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(List.of(bookingRequestDto), HttpStatus.OK)));
         String stateNull = null;
 
         mockMvc.perform(get("/bookings")
@@ -226,7 +227,7 @@ public class BookingControllerTest {
                         .header("X-Sharer-User-Id", userId))
                 .andExpect(status().isBadRequest());
 
-        verify(bookingClient, never()).getUserBookings(anyLong(), any(BookingState.class), anyInt(), anyInt());
+        verify(bookingClient, never()).getUserBookings(anyLong(), any(BookingState.class), anyInt(), anyInt(), any());
     }
 
     @SneakyThrows
@@ -241,14 +242,14 @@ public class BookingControllerTest {
                         .header("X-Sharer-User-Id", wrongUserId))
                 .andExpect(status().isBadRequest());
 
-        verify(bookingClient, never()).getUserBookings(anyLong(), any(BookingState.class), anyInt(), anyInt());
+        verify(bookingClient, never()).getUserBookings(anyLong(), any(BookingState.class), anyInt(), anyInt(), any());
     }
 
     @SneakyThrows
     @Test
     public void getOwnerBooking_Normal() {
         when(bookingClient.getBooking(anyLong(), anyLong())).thenReturn(
-                new ResponseEntity<>(List.of(bookingRequestDto), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(List.of(bookingRequestDto), HttpStatus.OK)));
 
         mockMvc.perform(get("/bookings/owner")
                         .param("state", state)
@@ -262,7 +263,7 @@ public class BookingControllerTest {
     @Test
     public void getOwnerBooking_StateIsNullOrEmpty() {
         when(bookingClient.getBooking(anyLong(), anyLong())).thenReturn(
-                new ResponseEntity<>(List.of(bookingRequestDto), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(List.of(bookingRequestDto), HttpStatus.OK)));
         String stateNull = null;
 
         mockMvc.perform(get("/bookings/owner")
@@ -303,7 +304,7 @@ public class BookingControllerTest {
                         .header("X-Sharer-User-Id", userId))
                 .andExpect(status().isBadRequest());
 
-        verify(bookingClient, never()).getUserBookings(anyLong(), any(BookingState.class), anyInt(), anyInt());
+        verify(bookingClient, never()).getUserBookings(anyLong(), any(BookingState.class), anyInt(), anyInt(), any());
     }
 
     @SneakyThrows
@@ -318,14 +319,14 @@ public class BookingControllerTest {
                         .header("X-Sharer-User-Id", wrongUserId))
                 .andExpect(status().isBadRequest());
 
-        verify(bookingClient, never()).getUserBookings(anyLong(), any(BookingState.class), anyInt(), anyInt());
+        verify(bookingClient, never()).getUserBookings(anyLong(), any(BookingState.class), anyInt(), anyInt(), any());
     }
 
     @SneakyThrows
     @Test
     public void updateBooking_Normal() {
         when(bookingClient.updateBooking(anyLong(), anyBoolean(), anyLong())).thenReturn(
-                new ResponseEntity<>(bookingRequestDto, HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(bookingRequestDto, HttpStatus.OK)));
 
         mockMvc.perform(patch("/bookings/" + bookingId)
                         .param("approved", "true")
@@ -0,0 +1,105 @@
+package client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
+import ru.practicum.shareit.client.RestTemplateExchange;
+import ru.practicum.shareit.client.ServerExchange;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class BaseClientTest {
+    private RestTemplate rest;
+    private MockRestServiceServer server;
+    private TestClient client;
+
+    @BeforeEach
+    public void beforeEach() {
+        rest = new RestTemplateBuilder()
+                .uriTemplateHandler(new DefaultUriBuilderFactory("http://server"))
+                .build();
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new TestClient(new RestTemplateExchange(rest));
+    }
+
+    @Test
+    public void get_PassesBodyAndHeadersThrough() {
+        String body = "[{\"id\":1,\"name\":\"Drill\"}]";
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Has-Next", "true");
+        headers.set(HttpHeaders.CONNECTION, "keep-alive");
+        server.expect(requestTo("http://server/items"))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = client.fetch("/items", 1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("true", response.getHeaders().getFirst("X-Has-Next"));
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONNECTION));
+        server.verify();
+    }
+
+    @Test
+    public void get_PassesErrorBodyThrough() {
+        String body = "{\"error\":\"Item id 1 not found\"}";
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(body));
+
+        ResponseEntity<Object> response = client.fetch("/items/1", 1L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        server.verify();
+    }
+
+    @Test
+    public void get_AnswersNotModifiedFromCache() {
+        TestClient cachingClient = new TestClient(new ResponseCache(new ResponseCacheProperties())
+                .wrap("http://server", new RestTemplateExchange(rest)));
+        String body = "{\"id\":1,\"name\":\"Drill\"}";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("W/\"1\"");
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON).headers(headers));
+        server.expect(requestTo("http://server/items/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "W/\"1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        cachingClient.fetch("/items/1", 2L);
+        ResponseEntity<Object> response = cachingClient.fetch("/items/1", 2L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        server.verify();
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(ServerExchange exchange) {
+            super(exchange);
+        }
+
+        ResponseEntity<Object> fetch(String path, long userId) {
+            return get(path, userId).join();
+        }
+    }
+}
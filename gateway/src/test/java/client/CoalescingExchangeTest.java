@@ -0,0 +1,138 @@
+package client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.client.CoalescingProperties;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ServerExchange;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoalescingExchangeTest {
+    private StubExchange server;
+    private RequestCoalescer coalescer;
+    private ServerExchange exchange;
+
+    @BeforeEach
+    public void beforeEach() {
+        CoalescingProperties properties = new CoalescingProperties();
+        properties.setMaxWait(Duration.ofMillis(200));
+        server = new StubExchange();
+        coalescer = new RequestCoalescer(properties);
+        exchange = coalescer.wrap("http://server", server);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        coalescer.destroy();
+    }
+
+    @Test
+    public void get_IdenticalCallsShareOneServerCall() {
+        CompletableFuture<ResponseEntity<byte[]>> first = exchange.exchange(HttpMethod.GET, "/items/1", forUser(1L), null);
+        CompletableFuture<ResponseEntity<byte[]>> second = exchange.exchange(HttpMethod.GET, "/items/1", forUser(1L), null);
+
+        assertEquals(1, server.calls.size());
+        ResponseEntity<byte[]> response = ResponseEntity.ok(new byte[]{1});
+        server.calls.get(0).complete(response);
+
+        assertSame(response, first.join());
+        assertSame(response, second.join());
+    }
+
+    @Test
+    public void get_FinishedCallIsNotReused() {
+        exchange.exchange(HttpMethod.GET, "/items/1", forUser(1L), null);
+        server.calls.get(0).complete(ResponseEntity.ok(new byte[]{1}));
+
+        exchange.exchange(HttpMethod.GET, "/items/1", forUser(1L), null);
+
+        assertEquals(2, server.calls.size());
+    }
+
+    @Test
+    public void get_DifferentUsersAreNotCoalesced() {
+        exchange.exchange(HttpMethod.GET, "/items/1", forUser(1L), null);
+        exchange.exchange(HttpMethod.GET, "/items/1", forUser(2L), null);
+
+        assertEquals(2, server.calls.size());
+    }
+
+    @Test
+    public void get_WaiterCallsServerAfterMaxWait() {
+        exchange.exchange(HttpMethod.GET, "/items/1", forUser(1L), null);
+        CompletableFuture<ResponseEntity<byte[]>> waiter = exchange.exchange(HttpMethod.GET, "/items/1", forUser(1L), null);
+
+        assertThrows(Exception.class, () -> waiter.get(100, TimeUnit.MILLISECONDS));
+        long deadline = System.currentTimeMillis() + 2000;
+        while (server.calls.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(2, server.calls.size());
+        assertTrue(server.threads.get(1).startsWith("coalescing-fallback-"), server.threads.get(1));
+
+        ResponseEntity<byte[]> response = ResponseEntity.ok(new byte[]{2});
+        server.calls.get(1).complete(response);
+        assertSame(response, waiter.join());
+    }
+
+    @Test
+    public void get_WaiterTimeoutLeavesSharedCallRunning() {
+        CompletableFuture<ResponseEntity<byte[]>> first = exchange.exchange(HttpMethod.GET, "/items/1", forUser(1L), null);
+        CompletableFuture<ResponseEntity<byte[]>> waiter = exchange.exchange(HttpMethod.GET, "/items/1", forUser(1L), null);
+
+        ResponseEntity<byte[]> fallback = ResponseEntity.ok(new byte[]{2});
+        long deadline = System.currentTimeMillis() + 2000;
+        while (server.calls.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        server.calls.get(1).complete(fallback);
+        assertSame(fallback, waiter.join());
+
+        assertFalse(first.isDone());
+        ResponseEntity<byte[]> response = ResponseEntity.ok(new byte[]{1});
+        server.calls.get(0).complete(response);
+        assertSame(response, first.join());
+    }
+
+    @Test
+    public void post_IsNeverCoalesced() {
+        exchange.exchange(HttpMethod.POST, "/items", forUser(1L), null);
+        exchange.exchange(HttpMethod.POST, "/items", forUser(1L), null);
+
+        assertEquals(2, server.calls.size());
+    }
+
+    private static HttpEntity<Object> forUser(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return new HttpEntity<>(headers);
+    }
+
+    private static class StubExchange implements ServerExchange {
+        private final List<CompletableFuture<ResponseEntity<byte[]>>> calls = new CopyOnWriteArrayList<>();
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, String path, HttpEntity<?> request,
+                                                                  @Nullable Map<String, Object> parameters) {
+            CompletableFuture<ResponseEntity<byte[]>> call = new CompletableFuture<>();
+            threads.add(Thread.currentThread().getName());
+            calls.add(call);
+            return call;
+        }
+    }
+}
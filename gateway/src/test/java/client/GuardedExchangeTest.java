@@ -0,0 +1,101 @@
+package client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.client.GuardedExchange;
+import ru.practicum.shareit.client.ServerExchange;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GuardedExchangeTest {
+    private StubExchange server;
+    private CircuitBreaker circuitBreaker;
+    private ServerExchange exchange;
+
+    @BeforeEach
+    public void beforeEach() {
+        server = new StubExchange();
+        circuitBreaker = CircuitBreaker.of("items", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        Bulkhead bulkhead = Bulkhead.of("items", BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        exchange = new GuardedExchange(server, circuitBreaker, bulkhead);
+    }
+
+    @Test
+    public void exchange_FailsFastWhenBulkheadIsFull() {
+        exchange.exchange(HttpMethod.GET, "/search", HttpEntity.EMPTY, null);
+        exchange.exchange(HttpMethod.GET, "/search", HttpEntity.EMPTY, null);
+
+        CompletableFuture<ResponseEntity<byte[]>> rejected = exchange.exchange(HttpMethod.GET, "/1", HttpEntity.EMPTY, null);
+
+        CompletionException e = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(BulkheadFullException.class, e.getCause());
+        assertEquals(2, server.calls.size());
+
+        server.calls.get(0).complete(ResponseEntity.ok(new byte[0]));
+        exchange.exchange(HttpMethod.GET, "/1", HttpEntity.EMPTY, null);
+        assertEquals(3, server.calls.size());
+    }
+
+    @Test
+    public void exchange_OpensCircuitOnServerErrors() {
+        for (int i = 0; i < 4; i++) {
+            exchange.exchange(HttpMethod.GET, "/1", HttpEntity.EMPTY, null);
+            server.calls.get(i).complete(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        }
+
+        CompletableFuture<ResponseEntity<byte[]>> rejected = exchange.exchange(HttpMethod.GET, "/1", HttpEntity.EMPTY, null);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        CompletionException e = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(CallNotPermittedException.class, e.getCause());
+        assertEquals(4, server.calls.size());
+    }
+
+    @Test
+    public void exchange_ClientErrorsKeepCircuitClosed() {
+        for (int i = 0; i < 4; i++) {
+            exchange.exchange(HttpMethod.GET, "/1", HttpEntity.EMPTY, null);
+            server.calls.get(i).complete(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private static class StubExchange implements ServerExchange {
+        private final List<CompletableFuture<ResponseEntity<byte[]>>> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, String path, HttpEntity<?> request,
+                                                                  @Nullable Map<String, Object> parameters) {
+            CompletableFuture<ResponseEntity<byte[]>> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.client.ServerEndpoint;
+import ru.practicum.shareit.client.ServerPool;
+import ru.practicum.shareit.client.ServerPoolProperties;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ServerPoolTest {
+    private ServerPoolProperties properties;
+
+    @BeforeEach
+    public void beforeEach() {
+        properties = new ServerPoolProperties();
+        properties.setUrl(List.of("http://server-1:9090", "http://server-2:9090/"));
+        properties.getHealthCheck().setEnabled(false);
+        properties.getOutlierDetection().setConsecutiveErrors(3);
+    }
+
+    @Test
+    public void choose_LeastOutstanding() {
+        ServerPool pool = new ServerPool(properties);
+        ServerEndpoint first = pool.getEndpoints().get(0);
+        ServerEndpoint second = pool.getEndpoints().get(1);
+        first.getOutstanding().set(3);
+        second.getOutstanding().set(1);
+
+        for (int i = 0; i < 4; i++) {
+            assertSame(second, pool.choose());
+        }
+        assertEquals("http://server-2:9090", second.getUrl());
+    }
+
+    @Test
+    public void choose_TiesRotate() {
+        ServerPool pool = new ServerPool(properties);
+
+        assertNotSame(pool.choose(), pool.choose());
+    }
+
+    @Test
+    public void failed_EjectsAfterConsecutiveErrors() {
+        ServerPool pool = new ServerPool(properties);
+        ServerEndpoint first = pool.getEndpoints().get(0);
+        ServerEndpoint second = pool.getEndpoints().get(1);
+        second.getOutstanding().set(10);
+
+        pool.failed(first);
+        pool.failed(first);
+        assertSame(first, pool.choose());
+        pool.failed(first);
+
+        assertSame(second, pool.choose());
+    }
+
+    @Test
+    public void failed_NeverEjectsMoreThanMaxPercent() {
+        ServerPool pool = new ServerPool(properties);
+        ServerEndpoint first = pool.getEndpoints().get(0);
+        ServerEndpoint second = pool.getEndpoints().get(1);
+        for (int i = 0; i < 3; i++) {
+            pool.failed(first);
+            pool.failed(second);
+        }
+        second.getOutstanding().set(10);
+
+        assertSame(second, pool.choose());
+    }
+
+    @Test
+    public void succeeded_ResetsErrorCount() {
+        ServerPool pool = new ServerPool(properties);
+        ServerEndpoint first = pool.getEndpoints().get(0);
+        pool.getEndpoints().get(1).getOutstanding().set(10);
+
+        pool.failed(first);
+        pool.failed(first);
+        pool.succeeded(first);
+        pool.failed(first);
+
+        assertSame(first, pool.choose());
+    }
+}
@@ -0,0 +1,61 @@
+package client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.client.WireFormatExchange;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WireFormatExchangeTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @SneakyThrows
+    @Test
+    public void exchange_TranscodesSmileToJson() {
+        String json = "[{\"id\":1,\"start\":\"2030-01-01T12:00:00\",\"status\":\"WAITING\",\"item\":{\"id\":2}}]";
+        byte[] smile = new ObjectMapper(new SmileFactory()).writeValueAsBytes(objectMapper.readTree(json));
+        AtomicReference<HttpEntity<?>> sent = new AtomicReference<>();
+        ServerExchange server = (method, path, request, parameters) -> {
+            sent.set(request);
+            return CompletableFuture.completedFuture(ResponseEntity.ok()
+                    .contentType(WireFormatExchange.APPLICATION_SMILE)
+                    .header("X-Has-Next", "false")
+                    .body(smile));
+        };
+
+        ResponseEntity<byte[]> response = new WireFormatExchange(server)
+                .exchange(HttpMethod.GET, "/bookings", HttpEntity.EMPTY, Map.of()).join();
+
+        assertEquals(WireFormatExchange.APPLICATION_SMILE, sent.get().getHeaders().getAccept().get(0));
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("false", response.getHeaders().getFirst("X-Has-Next"));
+        assertEquals(objectMapper.readTree(json), objectMapper.readTree(response.getBody()));
+    }
+
+    @Test
+    public void exchange_PassesJsonThrough() {
+        byte[] json = "{\"error\":\"Item id 1 not found\"}".getBytes(StandardCharsets.UTF_8);
+        ResponseEntity<byte[]> serverResponse = ResponseEntity.status(404)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json);
+        ServerExchange server = (method, path, request, parameters) -> CompletableFuture.completedFuture(serverResponse);
+
+        ResponseEntity<byte[]> response = new WireFormatExchange(server)
+                .exchange(HttpMethod.GET, "/items/1", new HttpEntity<>(new HttpHeaders()), null).join();
+
+        assertSame(serverResponse, response);
+    }
+}
@@ -18,6 +18,8 @@ import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
@@ -62,7 +64,7 @@ public class ItemControllerTest {
     @Test
     public void addItem_Normal() {
         when(itemClient.addItem(anyLong(), any(ItemRequestDto.class))).thenReturn(
-                new ResponseEntity<>(new ItemRequestDto(), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(new ItemRequestDto(), HttpStatus.OK)));
 
         mockMvc.perform(post("/items")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -147,7 +149,7 @@ public class ItemControllerTest {
     @Test
     public void updateItem_Normal() {
         when(itemClient.updateItem(anyLong(), anyLong(), any(ItemRequestDto.class))).thenReturn(
-                new ResponseEntity<>(new ItemRequestDto(), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(new ItemRequestDto(), HttpStatus.OK)));
         Long itemId = 1L;
 
         mockMvc.perform(patch("/items/" + itemId)
@@ -189,8 +191,8 @@ public class ItemControllerTest {
     @SneakyThrows
     @Test
     public void getAllItems_Normal() {
-        when(itemClient.getAllItems(anyLong(), anyInt(), anyInt())).thenReturn(
-                new ResponseEntity<>(new ItemRequestDto(), HttpStatus.OK));
+        when(itemClient.getAllItems(anyLong(), anyInt(), anyInt(), anyBoolean(), any())).thenReturn(
+                CompletableFuture.completedFuture(new ResponseEntity<>(new ItemRequestDto(), HttpStatus.OK)));
 
         mockMvc.perform(get("/items")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -216,7 +218,7 @@ public class ItemControllerTest {
                         .header("X-Sharer-User-Id", wrongUserId))
                 .andExpect(status().isBadRequest());
 
-        verify(itemClient, never()).getAllItems(anyLong(), anyInt(), anyInt());
+        verify(itemClient, never()).getAllItems(anyLong(), anyInt(), anyInt(), anyBoolean(), any());
     }
 
     @SneakyThrows
@@ -240,14 +242,14 @@ public class ItemControllerTest {
                         .header("X-Sharer-User-Id", userId))
                 .andExpect(status().isBadRequest());
 
-        verify(itemClient, never()).getAllItems(anyLong(), anyInt(), anyInt());
+        verify(itemClient, never()).getAllItems(anyLong(), anyInt(), anyInt(), anyBoolean(), any());
     }
 
     @SneakyThrows
     @Test
     public void getItem_Normal() {
         when(itemClient.getItem(anyLong(), anyLong())).thenReturn(
-                new ResponseEntity<>(new ItemRequestDto(), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(new ItemRequestDto(), HttpStatus.OK)));
         Long itemId = 1L;
 
         mockMvc.perform(get("/items/" + itemId)
@@ -283,8 +285,8 @@ public class ItemControllerTest {
     @SneakyThrows
     @Test
     public void searchItem_Normal() {
-        when(itemClient.searchItem(anyLong(), anyInt(), anyInt(), anyString())).thenReturn(
-                new ResponseEntity<>(new ItemRequestDto(), HttpStatus.OK));
+        when(itemClient.searchItem(anyLong(), anyInt(), anyInt(), anyString(), anyBoolean())).thenReturn(
+                CompletableFuture.completedFuture(new ResponseEntity<>(new ItemRequestDto(), HttpStatus.OK)));
 
         String text = "this is text";
 
@@ -310,7 +312,7 @@ public class ItemControllerTest {
                         .param("text", text))
                 .andExpect(status().isBadRequest());
 
-        verify(itemClient, never()).searchItem(anyLong(), anyInt(), anyInt(), anyString());
+        verify(itemClient, never()).searchItem(anyLong(), anyInt(), anyInt(), anyString(), anyBoolean());
     }
 
     @SneakyThrows
@@ -335,14 +337,14 @@ public class ItemControllerTest {
                         .param("text", text))
                 .andExpect(status().isBadRequest());
 
-        verify(itemClient, never()).searchItem(anyLong(), anyInt(), anyInt(), anyString());
+        verify(itemClient, never()).searchItem(anyLong(), anyInt(), anyInt(), anyString(), anyBoolean());
     }
 
     @SneakyThrows
     @Test
     public void deleteItem_Normal() {
         when(itemClient.deleteItem(anyLong(), anyLong())).thenReturn(
-                new ResponseEntity<>(new ItemRequestDto(), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(new ItemRequestDto(), HttpStatus.OK)));
         Long itemId = 1L;
 
         mockMvc.perform(delete("/items/" + itemId)
@@ -373,7 +375,7 @@ public class ItemControllerTest {
     @Test
     public void addComment_Normal() {
         when(itemClient.addComment(anyLong(), anyLong(), any(CommentDto.class))).thenReturn(
-                new ResponseEntity<>(new CommentDto(), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(new CommentDto(), HttpStatus.OK)));
         Long itemId = 1L;
 
         mockMvc.perform(post("/items/" + itemId + "/comment")
@@ -0,0 +1,92 @@
+package ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.ratelimit.LoadShedder;
+import ru.practicum.shareit.ratelimit.RateLimitFilter;
+import ru.practicum.shareit.ratelimit.RateLimitProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitFilterTest {
+    private RateLimitProperties properties;
+
+    @BeforeEach
+    public void beforeEach() {
+        RateLimitProperties.Rule search = new RateLimitProperties.Rule();
+        search.setName("search");
+        search.setMethod("GET");
+        search.setPattern("/items/search");
+        search.setCapacity(2);
+        search.setPerSecond(0.1);
+
+        properties = new RateLimitProperties();
+        properties.setStripes(1024);
+        properties.setRules(List.of(search));
+        properties.getShedding().setMaxConcurrentRequests(1);
+        properties.getShedding().setLatencyThreshold(Duration.ofMillis(1));
+    }
+
+    @Test
+    public void search_RejectedWithRetryAfterOnceBudgetIsSpent() {
+        RateLimitFilter filter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+
+        assertEquals(200, perform(filter, "/items/search", 1L).getStatus());
+        assertEquals(200, perform(filter, "/items/search", 1L).getStatus());
+        MockHttpServletResponse rejected = perform(filter, "/items/search", 1L);
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("10", rejected.getHeader("Retry-After"));
+    }
+
+    @Test
+    public void search_BudgetIsPerUser() {
+        RateLimitFilter filter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+        perform(filter, "/items/search", 1L);
+        perform(filter, "/items/search", 1L);
+
+        assertEquals(200, perform(filter, "/items/search", 2L).getStatus());
+    }
+
+    @Test
+    public void otherPaths_NotLimitedBySearchRule() {
+        RateLimitFilter filter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, perform(filter, "/items/1", 1L).getStatus());
+        }
+    }
+
+    @Test
+    public void requests_ShedWhenSlowAndOverConcurrencyLimit() {
+        RateLimitFilter filter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+        LoadShedder shedder = filter.getShedder();
+        for (int i = 0; i < 20; i++) {
+            shedder.tryEnter();
+            shedder.exit(Duration.ofSeconds(1).toNanos());
+        }
+        assertTrue(shedder.tryEnter());
+
+        MockHttpServletResponse shed = perform(filter, "/items/1", 1L);
+
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+    }
+
+    @SneakyThrows
+    private static MockHttpServletResponse perform(RateLimitFilter filter, String path, long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("X-Sharer-User-Id", userId);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
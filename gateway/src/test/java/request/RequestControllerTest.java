@@ -19,6 +19,7 @@ import ru.practicum.shareit.request.RequestController;
 import ru.practicum.shareit.request.dto.ItemRequestRequestDto;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -56,7 +57,7 @@ public class RequestControllerTest {
     @Test
     public void addRequest_Normal() {
         when(requestClient.addRequest(userId, itemRequestRequestDto)).thenReturn(
-                new ResponseEntity<>(new ItemRequestDto(), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(new ItemRequestDto(), HttpStatus.OK)));
 
         mockMvc.perform(post("/requests")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -105,7 +106,7 @@ public class RequestControllerTest {
     @Test
     public void findRequest_Normal() {
         when(requestClient.findRequest(anyLong(), anyLong())).thenReturn(
-                new ResponseEntity<>(new ItemRequestDto(), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(new ItemRequestDto(), HttpStatus.OK)));
 
         mockMvc.perform(get("/requests/" + requestId)
                         .header("X-Sharer-User-Id", userId))
@@ -140,7 +141,7 @@ public class RequestControllerTest {
     @Test
     public void getOwnRequests_Normal() {
         when(requestClient.getOwnRequests(anyLong(), anyInt(), anyInt())).thenReturn(
-                new ResponseEntity<>(List.of(itemRequestRequestDto), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(List.of(itemRequestRequestDto), HttpStatus.OK)));
 
         mockMvc.perform(get("/requests")
                         .header("X-Sharer-User-Id", userId)
@@ -167,7 +168,7 @@ public class RequestControllerTest {
     @Test
     public void getOwnRequests_EmptyFrom() {
         when(requestClient.getOwnRequests(anyLong(), anyInt(), anyInt())).thenReturn(
-                new ResponseEntity<>(List.of(itemRequestRequestDto), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(List.of(itemRequestRequestDto), HttpStatus.OK)));
 
         mockMvc.perform(get("/requests")
                         .header("X-Sharer-User-Id", userId)
@@ -180,7 +181,7 @@ public class RequestControllerTest {
     @Test
     public void getOwnRequests_EmptySize() {
         when(requestClient.getOwnRequests(anyLong(), anyInt(), anyInt())).thenReturn(
-                new ResponseEntity<>(List.of(itemRequestRequestDto), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(List.of(itemRequestRequestDto), HttpStatus.OK)));
 
         mockMvc.perform(get("/requests")
                         .header("X-Sharer-User-Id", userId)
@@ -214,8 +215,8 @@ public class RequestControllerTest {
     @SneakyThrows
     @Test
     public void getRequests_Normal() {
-        when(requestClient.getAllRequests(anyLong(), anyInt(), anyInt())).thenReturn(
-                new ResponseEntity<>(List.of(itemRequestRequestDto), HttpStatus.OK));
+        when(requestClient.getAllRequests(anyLong(), anyInt(), anyInt(), any())).thenReturn(
+                CompletableFuture.completedFuture(new ResponseEntity<>(List.of(itemRequestRequestDto), HttpStatus.OK)));
 
         mockMvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", userId)
@@ -235,14 +236,14 @@ public class RequestControllerTest {
                         .param("size", size.toString()))
                 .andExpect(status().isBadRequest());
 
-        verify(requestClient, never()).getAllRequests(anyLong(), anyInt(), anyInt());
+        verify(requestClient, never()).getAllRequests(anyLong(), anyInt(), anyInt(), any());
     }
 
     @SneakyThrows
     @Test
     public void getRequests_EmptyFrom() {
-        when(requestClient.getAllRequests(anyLong(), anyInt(), anyInt())).thenReturn(
-                new ResponseEntity<>(List.of(itemRequestRequestDto), HttpStatus.OK));
+        when(requestClient.getAllRequests(anyLong(), anyInt(), anyInt(), any())).thenReturn(
+                CompletableFuture.completedFuture(new ResponseEntity<>(List.of(itemRequestRequestDto), HttpStatus.OK)));
 
         mockMvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", userId)
@@ -254,8 +255,8 @@ public class RequestControllerTest {
     @SneakyThrows
     @Test
     public void getRequests_EmptySize() {
-        when(requestClient.getAllRequests(anyLong(), anyInt(), anyInt())).thenReturn(
-                new ResponseEntity<>(List.of(itemRequestRequestDto), HttpStatus.OK));
+        when(requestClient.getAllRequests(anyLong(), anyInt(), anyInt(), any())).thenReturn(
+                CompletableFuture.completedFuture(new ResponseEntity<>(List.of(itemRequestRequestDto), HttpStatus.OK)));
 
         mockMvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", userId)
@@ -283,7 +284,7 @@ public class RequestControllerTest {
                         .param("size", wrongSize.toString()))
                 .andExpect(status().isBadRequest());
 
-        verify(requestClient, never()).getAllRequests(anyLong(), anyInt(), anyInt());
+        verify(requestClient, never()).getAllRequests(anyLong(), anyInt(), anyInt(), any());
     }
 
 }
@@ -1,6 +1,8 @@
 package user;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,16 +14,21 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.handler.ErrorHandler;
 import ru.practicum.shareit.user.UserClient;
 import ru.practicum.shareit.user.UserController;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest
@@ -52,7 +59,7 @@ public class UserControllerTest {
     @Test
     public void addUser_Normal() {
         when(userClient.addUser(any())).thenReturn(
-                new ResponseEntity<>(new UserRequestDto(), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(new UserRequestDto(), HttpStatus.OK)));
 
         mockMvc.perform(post("/users")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -104,7 +111,7 @@ public class UserControllerTest {
     @Test
     public void updateUser_Normal() {
         when(userClient.updateUser(anyLong(), any())).thenReturn(
-                new ResponseEntity<>(new UserRequestDto(), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(new UserRequestDto(), HttpStatus.OK)));
 
         UserRequestDto updatedUser = UserRequestDto.builder()
                 .email("otheremail@email.com")
@@ -142,13 +149,49 @@ public class UserControllerTest {
     @Test
     public void getUser_Normal() {
         when(userClient.getUser(anyLong())).thenReturn(
-                new ResponseEntity<>(new UserRequestDto(), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(new UserRequestDto(), HttpStatus.OK)));
 
         mockMvc.perform(get("/users/" + userId)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
 
+    @SneakyThrows
+    @Test
+    public void getUser_AsyncResponse() {
+        CompletableFuture<ResponseEntity<Object>> response = new CompletableFuture<>();
+        when(userClient.getUser(anyLong())).thenReturn(response);
+
+        MvcResult result = mockMvc.perform(get("/users/" + userId)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        response.complete(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":1}"));
+    }
+
+    @SneakyThrows
+    @Test
+    public void getUser_CircuitOpen() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("users");
+        circuitBreaker.transitionToOpenState();
+        when(userClient.getUser(anyLong())).thenReturn(CompletableFuture.failedFuture(
+                CallNotPermittedException.createCallNotPermittedException(circuitBreaker)));
+
+        MvcResult result = mockMvc.perform(get("/users/" + userId)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable());
+    }
+
     @SneakyThrows
     @Test
     public void getUser_WrongUserId() {
@@ -165,7 +208,7 @@ public class UserControllerTest {
     @Test
     public void getAllUser_Normal() {
         when(userClient.getUser(anyLong())).thenReturn(
-                new ResponseEntity<>(List.of(new UserRequestDto()), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(List.of(new UserRequestDto()), HttpStatus.OK)));
 
         mockMvc.perform(get("/users")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -176,7 +219,7 @@ public class UserControllerTest {
     @Test
     public void deleteUser_Normal() {
         when(userClient.deleteUser(anyLong())).thenReturn(
-                new ResponseEntity<>(new UserRequestDto(), HttpStatus.OK));
+                CompletableFuture.completedFuture(new ResponseEntity<>(new UserRequestDto(), HttpStatus.OK)));
 
         mockMvc.perform(delete("/users/" + userId)
                         .contentType(MediaType.APPLICATION_JSON))
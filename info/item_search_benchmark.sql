@@ -0,0 +1,66 @@
+-- Item search plan benchmark.
+-- Compares the old derived search query with ItemRepository.searchAvailableItems
+-- on a seeded copy of the items table. Nothing in the public schema is changed.
+--
+-- Run against the compose database:
+--   docker exec -i shareit-db psql -U root -d shareit < info/item_search_benchmark.sql
+
+create extension if not exists pg_trgm;
+
+drop schema if exists search_bench cascade;
+create schema search_bench;
+
+create table search_bench.items
+(
+    item_id     bigint GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    name        VARCHAR(255)                            NOT NULL,
+    description VARCHAR(1000)                           NOT NULL,
+    available   BOOLEAN                                 NOT NULL,
+    owner_id    BIGINT                                  NOT NULL,
+    request_id  BIGINT,
+    CONSTRAINT pk_bench_item PRIMARY KEY (item_id)
+);
+
+-- 1 000 000 items, every fifth one unavailable, one item in 10 000 mentions "drill".
+insert into search_bench.items (name, description, available, owner_id)
+select case when g % 10000 = 0 then 'Cordless drill ' || g else 'Item ' || md5(g::text) end,
+       'Description ' || md5((g * 7)::text),
+       g % 5 <> 0,
+       g % 1000 + 1
+from generate_series(1, 1000000) as g;
+
+analyze search_bench.items;
+
+-- Old plan: the derived query, no indexes.
+-- Parses as name LIKE ? OR (description LIKE ? AND available), so it scans the table
+-- and also returns unavailable items matching by name.
+explain (analyze, buffers)
+select *
+from search_bench.items i
+where upper(i.name) like '%DRILL%' escape '\'
+   or upper(i.description) like '%DRILL%' escape '\' and i.available = true
+limit 10;
+
+create index idx_bench_items_available_name_trgm on search_bench.items using gin (upper(name) gin_trgm_ops)
+    where available = true;
+create index idx_bench_items_available_description_trgm on search_bench.items
+    using gin (upper(description) gin_trgm_ops)
+    where available = true;
+
+analyze search_bench.items;
+
+-- New plan: searchAvailableItems with the partial trigram indexes.
+-- Expected: BitmapOr over the two partial GIN indexes, no sequential scan.
+explain (analyze, buffers)
+select *
+from search_bench.items i
+where i.available = true
+  and (upper(i.name) like '%DRILL%' escape '\' or upper(i.description) like '%DRILL%' escape '\')
+order by case
+             when upper(i.name) like 'DRILL%' escape '\' then 0
+             when upper(i.name) like '%DRILL%' escape '\' then 1
+             else 2 end,
+         i.item_id
+limit 10;
+
+drop schema search_bench cascade;
@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+# Gateway concurrency benchmark: platform thread pool vs virtual threads behind a slow server.
+#
+# A stub stands in for the ShareIt server and answers every request after SERVER_DELAY_MS.
+# The gateway is started twice, once per execution mode, and loaded with CONCURRENCY parallel
+# clients. With 200 Tomcat workers and a 200 ms server the platform mode tops out near
+# 1000 req/s; the virtual thread mode is bounded only by the HTTP connection pool.
+# Response caching, request coalescing and rate limiting are switched off: every client asks for the
+# same URL, and those would answer most requests without reaching the stub.
+#
+# Requires a built gateway jar (mvn -pl gateway package), python3 and hey (https://github.com/rakyll/hey).
+#   info/virtual_threads_benchmark.sh
+set -euo pipefail
+
+SERVER_DELAY_MS=${SERVER_DELAY_MS:-200}
+CONCURRENCY=${CONCURRENCY:-2000}
+DURATION=${DURATION:-30s}
+STUB_PORT=19090
+GATEWAY_PORT=18080
+GATEWAY_JAR=$(ls gateway/target/shareit-gateway-*.jar | head -1)
+
+python3 - "$STUB_PORT" "$SERVER_DELAY_MS" <<'PY' &
+import sys, time
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+
+delay = int(sys.argv[2]) / 1000
+
+
+class SlowServer(BaseHTTPRequestHandler):
+    def do_GET(self):
+        time.sleep(delay)
+        body = b'{"id":1,"name":"user","email":"user@email.com"}'
+        self.send_response(200)
+        self.send_header("Content-Type", "application/json")
+        self.send_header("Content-Length", str(len(body)))
+        self.end_headers()
+        self.wfile.write(body)
+
+    def log_message(self, *args):
+        pass
+
+
+ThreadingHTTPServer.request_queue_size = 4096
+ThreadingHTTPServer(("127.0.0.1", int(sys.argv[1])), SlowServer).serve_forever()
+PY
+STUB_PID=$!
+trap 'kill $STUB_PID 2>/dev/null' EXIT
+
+run() {
+  local virtual=$1
+  java -Djdk.tracePinnedThreads=short -jar "$GATEWAY_JAR" \
+    --server.port=$GATEWAY_PORT \
+    --shareit-server.url=http://127.0.0.1:$STUB_PORT \
+    --shareit-server.http.max-connections=$CONCURRENCY \
+    --shareit-server.http.max-connections-per-route=$CONCURRENCY \
+    --spring.threads.virtual.enabled="$virtual" \
+    --shareit-server.cache.enabled=false \
+    --shareit-server.coalescing.enabled=false \
+    --rate-limit.enabled=false \
+    --logging.level.root=WARN \
+    --logging.level.org.apache.http=WARN \
+    --logging.level.httpclient.wire=WARN \
+    --logging.level.org.springframework.web.client.RestTemplate=WARN > "gateway-virtual-$virtual.log" 2>&1 &
+  local gateway_pid=$!
+  until curl -s -o /dev/null "http://127.0.0.1:$GATEWAY_PORT/actuator/health"; do sleep 1; done
+
+  echo "== spring.threads.virtual.enabled=$virtual"
+  hey -z "$DURATION" -c "$CONCURRENCY" "http://127.0.0.1:$GATEWAY_PORT/users/1" \
+    | grep -E "Requests/sec|Average|99%|\[[0-9]+\]"
+  echo "pinned thread reports: $(grep -c 'VirtualThread' "gateway-virtual-$virtual.log" || true)"
+
+  kill $gateway_pid
+  wait $gateway_pid 2>/dev/null || true
+}
+
+run false
+run true
@@ -2,8 +2,14 @@ package ru.practicum.shareit;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import ru.practicum.shareit.booking.repository.BookingInsertProperties;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+// Listed explicitly because BookingRepository needs it in @DataJpaTest slices, which skip the scan.
+@EnableConfigurationProperties(BookingInsertProperties.class)
 public class ShareItServer {
 
     public static void main(String[] args) {
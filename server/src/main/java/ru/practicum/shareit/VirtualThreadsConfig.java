@@ -0,0 +1,43 @@
+package ru.practicum.shareit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in mode that runs every server request on its own virtual thread instead of the platform worker pool.
+ * Requests still queue for the Hikari pool, so the database sees no more concurrent connections than before.
+ * <p>
+ * The PostgreSQL driver takes locks rather than monitors from 42.6 on. Two paths still block inside a monitor
+ * and pin the carrier thread while they wait for the database:
+ * <ul>
+ *     <li>an {@code EntityCache} miss, which loads inside Caffeine's compute and so under a map bin monitor.
+ *     Misses the second-level cache answers do no I/O there;</li>
+ *     <li>a {@code KnownIds} rebuild, which streams all ids under the filter's monitor. It runs at startup and
+ *     after missed invalidations, not per request.</li>
+ * </ul>
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig implements DisposableBean {
+    // Not a bean: an Executor bean would replace Spring Boot's applicationTaskExecutor.
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * Tomcat leaves an executor it was given running, so it is closed here, after the web server has stopped.
+     */
+    @Override
+    public void destroy() {
+        executor.close();
+    }
+}
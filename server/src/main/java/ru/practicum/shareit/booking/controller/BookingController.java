@@ -2,11 +2,15 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.SliceHeaders;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @RestController
@@ -45,24 +49,45 @@ public class BookingController {
     public List<BookingResponseDto> getUserBookings(@RequestParam String state,
                                                     @RequestHeader(value = "X-Sharer-User-Id") Long bookerId,
                                                     @RequestParam Integer from,
-                                                    @RequestParam Integer size) {
+                                                    @RequestParam Integer size,
+                                                    @RequestParam(required = false) String after,
+                                                    HttpServletResponse response) {
 
         log.info("Looking for bookings of user {} with state {}", bookerId, state);
-        List<BookingResponseDto> bookings = bookingService.getUserBookings(bookerId, state, from, size);
-        log.info("Bookings found: {}.", bookings);
-        return bookings;
+        Slice<BookingResponseDto> bookings;
+        if (after == null) {
+            bookings = bookingService.getUserBookings(bookerId, state, from, size);
+        } else {
+            bookings = bookingService.getUserBookingsAfter(bookerId, state, after, size);
+        }
+        SliceHeaders.write(response, bookings, booking -> Cursor.of(booking.getStart(), booking.getId()));
+        log.info("Bookings found: {}.", bookings.getContent());
+        return bookings.getContent();
     }
 
     @GetMapping("/owner")
     public List<BookingResponseDto> getOwnerBooking(@RequestParam String state,
                                                     @RequestHeader(value = "X-Sharer-User-Id") Long bookerId,
                                                     @RequestParam int from,
-                                                    @RequestParam int size) {
+                                                    @RequestParam int size,
+                                                    @RequestParam(required = false) String after,
+                                                    HttpServletResponse response) {
 
         log.info("Looking for bookings of owner {} with state {}", bookerId, state);
-        List<BookingResponseDto> bookings = bookingService.getOwnerBooking(bookerId, state, from, size);
-        log.info("Bookings found: {}.", bookings);
-        return bookings;
+        Slice<BookingResponseDto> bookings;
+        if (after == null) {
+            bookings = bookingService.getOwnerBooking(bookerId, state, from, size);
+        } else {
+            bookings = bookingService.getOwnerBookingAfter(bookerId, state, after, size);
+        }
+        if (after == null && "CURRENT".equals(state)) {
+            // offset CURRENT pages are ordered by id, so a (start, id) cursor cannot continue them
+            SliceHeaders.write(response, bookings);
+        } else {
+            SliceHeaders.write(response, bookings, booking -> Cursor.of(booking.getStart(), booking.getId()));
+        }
+        log.info("Bookings found: {}.", bookings.getContent());
+        return bookings.getContent();
     }
 
     @PatchMapping("/{bookingId}")
@@ -25,17 +25,43 @@ public class Booking {
     private Timestamp startDate;
     private Timestamp endDate;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    /**
+     * Not optional, so derived queries on item.id compare bookings.item_id, which the booking indexes cover,
+     * instead of outer joining items.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "item_id")
     private Item item;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "booker_id")
     private User booker;
 
+    /**
+     * Read-only view of booker_id. Derived queries named findByBookerId... resolve to this column; through the
+     * booker association they would filter on the fetched users row, which H2 cannot serve from a bookings index.
+     */
+    @Column(name = "booker_id", insertable = false, updatable = false)
+    private Long bookerId;
+
+    /**
+     * Copy of the item owner id, so owner booking lists are served from bookings alone.
+     * Derived queries named findByItemOwnerId... resolve to this column rather than joining items.
+     */
+    @Column(name = "item_owner_id", nullable = false, updatable = false)
+    private Long itemOwnerId;
+
     @Enumerated(value = EnumType.STRING)
     private Status status;
 
+    @PrePersist
+    private void copyItemOwnerAndBooker() {
+        if (itemOwnerId == null) {
+            itemOwnerId = item.getOwnerId();
+        }
+        bookerId = booker.getId();
+    }
+
     @Override
     public String toString() {
         return "Booking{" +
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.model.Booking;
+
+/**
+ * Outcome of {@link BookingRepositoryCustom#insertWaiting}: the new booking with the item and booker
+ * the response shows, or the check that refused it.
+ */
+@Value
+public class BookingInsert {
+    Booking booking;
+    Rejection rejection;
+
+    public static BookingInsert created(Booking booking) {
+        return new BookingInsert(booking, null);
+    }
+
+    public static BookingInsert rejected(Rejection rejection) {
+        return new BookingInsert(null, rejection);
+    }
+
+    public boolean isCreated() {
+        return rejection == null;
+    }
+
+    /**
+     * Checks in the order the service has always run them, so the first failing one is reported.
+     */
+    public enum Rejection {
+        ITEM_NOT_FOUND,
+        ITEM_NOT_AVAILABLE,
+        OWN_ITEM,
+        BOOKER_NOT_FOUND,
+        OVERLAP
+    }
+}
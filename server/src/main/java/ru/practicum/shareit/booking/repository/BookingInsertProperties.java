@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.booking")
+public class BookingInsertProperties {
+    private InsertMode insertMode = InsertMode.STEPWISE;
+
+    public enum InsertMode {
+        // One multi-statement round trip with an INSERT inside a CTE; PostgreSQL only.
+        FUSED,
+        // Separate JPA statements, for any database.
+        STEPWISE
+    }
+}
@@ -1,39 +1,54 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
 import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findByBookerIdOrderByStartDateDesc(Long userId, Pageable page);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long bookingId);
 
-    Page<Booking> findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDesc(Long userId, Timestamp t1,
-                                                                                      Timestamp t2, Pageable page);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Slice<Booking> findByBookerIdOrderByStartDateDescIdDesc(Long userId, Pageable page);
 
-    Page<Booking> findByBookerIdAndEndDateBeforeOrderByStartDateDesc(Long userId, Timestamp t1, Pageable page);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Slice<Booking> findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDescIdDesc(Long userId, Timestamp t1,
+                                                                                            Timestamp t2, Pageable page);
 
-    Page<Booking> findByBookerIdAndStartDateAfterOrderByStartDateDesc(Long userId, Timestamp t1, Pageable page);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Slice<Booking> findByBookerIdAndEndDateBeforeOrderByStartDateDescIdDesc(Long userId, Timestamp t1, Pageable page);
 
-    Page<Booking> findByBookerIdAndStatusEqualsOrderByStartDateDesc(Long userId, Status status, Pageable page);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Slice<Booking> findByBookerIdAndStartDateAfterOrderByStartDateDescIdDesc(Long userId, Timestamp t1, Pageable page);
 
-    Page<Booking> findByItemOwnerIdOrderByStartDateDesc(Long userId, Pageable page);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Slice<Booking> findByBookerIdAndStatusEqualsOrderByStartDateDescIdDesc(Long userId, Status status, Pageable page);
 
-    Page<Booking> findByItemOwnerIdAndStartDateBeforeAndEndDateAfterOrderById(Long userId, Timestamp t1,
-                                                                              Timestamp t2, Pageable page);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Slice<Booking> findByItemOwnerIdOrderByStartDateDescIdDesc(Long userId, Pageable page);
 
-    Page<Booking> findByItemOwnerIdAndEndDateBeforeOrderByStartDateDesc(Long userId, Timestamp t1, Pageable page);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Slice<Booking> findByItemOwnerIdAndStartDateBeforeAndEndDateAfterOrderById(Long userId, Timestamp t1,
+                                                                              Timestamp t2, Pageable page);
 
-    Page<Booking> findByItemOwnerIdAndStartDateAfterOrderByStartDateDesc(Long userId, Timestamp t1, Pageable page);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Slice<Booking> findByItemOwnerIdAndEndDateBeforeOrderByStartDateDescIdDesc(Long userId, Timestamp t1, Pageable page);
 
-    Page<Booking> findByItemOwnerIdAndStatusEqualsOrderByStartDateDesc(Long userId, Status status, Pageable page);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Slice<Booking> findByItemOwnerIdAndStartDateAfterOrderByStartDateDescIdDesc(Long userId, Timestamp t1, Pageable page);
 
-    List<Booking> findByItemId(Long itemId);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Slice<Booking> findByItemOwnerIdAndStatusEqualsOrderByStartDateDescIdDesc(Long userId, Status status, Pageable page);
 
     List<Booking> findByItemIdAndBookerIdAndStatusNotAndStartDateBefore(Long itemId, Long bookerId, Status status, Timestamp timestamp);
 
@@ -50,4 +65,22 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "start_date > ?2 " +
             "order by start_date asc limit 1", nativeQuery = true)
     List<Booking> findNextBooking(Long itemId, Timestamp timestamp);
+
+    @Query(value = "select booking_id, item_id, item_owner_id, booker_id, start_date, end_date, status from " +
+            "(select b.*, row_number() over (partition by b.item_id order by b.start_date desc) as rn " +
+            "from bookings as b where " +
+            "b.item_id in ?1 and " +
+            "b.status <> 'REJECTED' and " +
+            "b.start_date < ?2) as last_bookings " +
+            "where rn = 1", nativeQuery = true)
+    List<Booking> findLastBookings(Collection<Long> itemIds, Timestamp timestamp);
+
+    @Query(value = "select booking_id, item_id, item_owner_id, booker_id, start_date, end_date, status from " +
+            "(select b.*, row_number() over (partition by b.item_id order by b.start_date asc) as rn " +
+            "from bookings as b where " +
+            "b.item_id in ?1 and " +
+            "b.status <> 'REJECTED' and " +
+            "b.start_date > ?2) as next_bookings " +
+            "where rn = 1", nativeQuery = true)
+    List<Booking> findNextBookings(Collection<Long> itemIds, Timestamp timestamp);
 }
\ No newline at end of file
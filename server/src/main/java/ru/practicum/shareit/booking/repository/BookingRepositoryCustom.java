@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+
+public interface BookingRepositoryCustom {
+    Slice<Booking> findSlice(Specification<Booking> specification, Pageable page);
+
+    /**
+     * Checks that the item exists, is available and is not the booker's own, that the booker exists and
+     * that no booking of the item overlaps, then inserts the booking. Concurrent calls for one item are
+     * serialized by a row lock on the item.
+     * <p>
+     * Periods overlap when each starts no later than the other ends, so a booking that starts at the very
+     * instant another one ends is refused, whatever the status of the other booking.
+     */
+    BookingInsert insertWaiting(Booking booking);
+}
@@ -0,0 +1,198 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.Session;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingInsert.Rejection;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+    /**
+     * Three statements sent in one round trip. The first locks the item row. The second starts after the lock
+     * is granted, so under READ COMMITTED its snapshot sees every booking committed by whoever held the lock;
+     * a single INSERT ... SELECT would keep the snapshot it took before waiting and could miss an overlap.
+     * It returns the verdict together with the item and booker columns of the response, and the third
+     * statement the item comments, so nothing is loaded afterwards.
+     */
+    private static final String INSERT_WAITING_SQL = "select item_id from items where item_id = ? for update; " +
+            "with item as (select item_id, name, description, available, owner_id, request_id " +
+            "from items where item_id = ?), " +
+            "booker as (select user_id, name, email from shareit_users where user_id = ?), " +
+            "verdict as (select case " +
+            "when not exists (select 1 from item) then 'ITEM_NOT_FOUND' " +
+            "when not (select available from item) then 'ITEM_NOT_AVAILABLE' " +
+            "when (select owner_id from item) = ? then 'OWN_ITEM' " +
+            "when not exists (select 1 from booker) then 'BOOKER_NOT_FOUND' " +
+            "when exists (select 1 from bookings where item_id = ? and start_date <= ? and end_date >= ?) " +
+            "then 'OVERLAP' " +
+            "end as reason), " +
+            "inserted as (insert into bookings (item_id, item_owner_id, booker_id, start_date, end_date, status) " +
+            "select item.item_id, item.owner_id, booker.user_id, ?, ?, ? from item, booker, verdict " +
+            "where verdict.reason is null " +
+            "returning booking_id) " +
+            "select (select booking_id from inserted) as booking_id, verdict.reason, " +
+            "item.name as item_name, item.description as item_description, item.available as item_available, " +
+            "item.owner_id as item_owner_id, item.request_id as item_request_id, " +
+            "booker.name as booker_name, booker.email as booker_email " +
+            "from verdict left join item on true left join booker on true; " +
+            "select c.comment_id, c.text, c.created, u.name as author_name " +
+            "from comments c join shareit_users u on u.user_id = c.author_id " +
+            "where c.item_id = ? order by c.comment_id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final BookingInsertProperties properties;
+
+    public BookingRepositoryImpl(BookingInsertProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Slice<Booking> findSlice(Specification<Booking> specification, Pageable page) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = builder.createQuery(Booking.class);
+        Root<Booking> root = query.from(Booking.class);
+        root.fetch("item");
+        root.fetch("booker");
+        query.select(root)
+                .where(specification.toPredicate(root, query, builder))
+                .orderBy(QueryUtils.toOrders(page.getSort(), root, builder));
+
+        List<Booking> bookings = entityManager.createQuery(query)
+                .setFirstResult((int) page.getOffset())
+                .setMaxResults(page.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = bookings.size() > page.getPageSize();
+        if (hasNext) {
+            bookings = bookings.subList(0, page.getPageSize());
+        }
+        return new SliceImpl<>(bookings, page, hasNext);
+    }
+
+    @Override
+    public BookingInsert insertWaiting(Booking booking) {
+        if (properties.getInsertMode() == BookingInsertProperties.InsertMode.FUSED) {
+            return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_WAITING_SQL)) {
+                    bindInsertWaiting(statement, booking);
+                    statement.execute();
+                    return readInsertWaiting(statement, booking);
+                }
+            });
+        }
+        return insertWaitingStepwise(booking);
+    }
+
+    private void bindInsertWaiting(PreparedStatement statement, Booking booking) throws SQLException {
+        long itemId = booking.getItem().getId();
+        long bookerId = booking.getBooker().getId();
+        statement.setLong(1, itemId);
+        statement.setLong(2, itemId);
+        statement.setLong(3, bookerId);
+        statement.setLong(4, bookerId);
+        statement.setLong(5, itemId);
+        statement.setTimestamp(6, booking.getEndDate());
+        statement.setTimestamp(7, booking.getStartDate());
+        statement.setTimestamp(8, booking.getStartDate());
+        statement.setTimestamp(9, booking.getEndDate());
+        statement.setString(10, booking.getStatus().name());
+        statement.setLong(11, itemId);
+    }
+
+    private BookingInsert readInsertWaiting(PreparedStatement statement, Booking booking) throws SQLException {
+        if (!statement.getMoreResults()) {
+            throw new SQLException("Booking insert returned no verdict");
+        }
+        Item item = booking.getItem();
+        User booker = booking.getBooker();
+        try (ResultSet verdict = statement.getResultSet()) {
+            verdict.next();
+            String reason = verdict.getString("reason");
+            if (reason != null) {
+                return BookingInsert.rejected(Rejection.valueOf(reason));
+            }
+            booking.setId(verdict.getLong("booking_id"));
+            item.setName(verdict.getString("item_name"));
+            item.setDescription(verdict.getString("item_description"));
+            item.setIsAvailable(verdict.getBoolean("item_available"));
+            item.setOwnerId(verdict.getLong("item_owner_id"));
+            Long requestId = verdict.getObject("item_request_id", Long.class);
+            item.setRequest(requestId == null ? null : Request.builder().id(requestId).build());
+            booker.setName(verdict.getString("booker_name"));
+            booker.setEmail(verdict.getString("booker_email"));
+            booking.setItemOwnerId(item.getOwnerId());
+        }
+        if (!statement.getMoreResults()) {
+            throw new SQLException("Booking insert returned no item comments");
+        }
+        List<Comment> comments = new ArrayList<>();
+        try (ResultSet rows = statement.getResultSet()) {
+            while (rows.next()) {
+                comments.add(Comment.builder()
+                        .id(rows.getLong("comment_id"))
+                        .text(rows.getString("text"))
+                        .created(rows.getTimestamp("created"))
+                        .item(item)
+                        .author(User.builder().name(rows.getString("author_name")).build())
+                        .build());
+            }
+        }
+        item.setComments(comments);
+        return BookingInsert.created(booking);
+    }
+
+    /**
+     * The same checks as separate statements, for databases that cannot run INSERT inside a CTE (H2 in tests).
+     * Selected by shareit.booking.insert-mode=stepwise.
+     */
+    private BookingInsert insertWaitingStepwise(Booking booking) {
+        Item item = entityManager.find(Item.class, booking.getItem().getId(), LockModeType.PESSIMISTIC_WRITE);
+        if (item == null) {
+            return BookingInsert.rejected(Rejection.ITEM_NOT_FOUND);
+        }
+        if (!item.getIsAvailable()) {
+            return BookingInsert.rejected(Rejection.ITEM_NOT_AVAILABLE);
+        }
+        if (item.getOwnerId().equals(booking.getBooker().getId())) {
+            return BookingInsert.rejected(Rejection.OWN_ITEM);
+        }
+        User booker = entityManager.find(User.class, booking.getBooker().getId());
+        if (booker == null) {
+            return BookingInsert.rejected(Rejection.BOOKER_NOT_FOUND);
+        }
+        boolean overlaps = entityManager.createQuery("select count(b) > 0 from Booking b where " +
+                        "b.item.id = :itemId and b.startDate <= :end and b.endDate >= :start", Boolean.class)
+                .setParameter("itemId", item.getId())
+                .setParameter("start", booking.getStartDate())
+                .setParameter("end", booking.getEndDate())
+                .getSingleResult();
+        if (overlaps) {
+            return BookingInsert.rejected(Rejection.OVERLAP);
+        }
+        booking.setItem(item);
+        booking.setBooker(booker);
+        entityManager.persist(booking);
+        return BookingInsert.created(booking);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.pagination.Cursor;
+
+import java.sql.Timestamp;
+
+public class BookingSpecifications {
+    public static Specification<Booking> hasBooker(Long bookerId) {
+        return (root, query, builder) -> builder.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> hasItemOwner(Long ownerId) {
+        return (root, query, builder) -> builder.equal(root.get("itemOwnerId"), ownerId);
+    }
+
+    public static Specification<Booking> isCurrent(Timestamp now) {
+        return (root, query, builder) -> builder.and(
+                builder.lessThan(root.<Timestamp>get("startDate"), now),
+                builder.greaterThan(root.<Timestamp>get("endDate"), now));
+    }
+
+    public static Specification<Booking> isPast(Timestamp now) {
+        return (root, query, builder) -> builder.lessThan(root.<Timestamp>get("endDate"), now);
+    }
+
+    public static Specification<Booking> isFuture(Timestamp now) {
+        return (root, query, builder) -> builder.greaterThan(root.<Timestamp>get("startDate"), now);
+    }
+
+    public static Specification<Booking> hasStatus(Status status) {
+        return (root, query, builder) -> builder.equal(root.get("status"), status);
+    }
+
+    public static Specification<Booking> isAfter(Cursor cursor) {
+        return (root, query, builder) -> builder.or(
+                builder.lessThan(root.<Timestamp>get("startDate"), cursor.getTimestamp()),
+                builder.and(
+                        builder.equal(root.get("startDate"), cursor.getTimestamp()),
+                        builder.lessThan(root.<Long>get("id"), cursor.getId())));
+    }
+}
@@ -2,8 +2,10 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
@@ -13,11 +15,12 @@ import ru.practicum.shareit.booking.exceptions.BookingNotFoundException;
 import ru.practicum.shareit.booking.exceptions.ItemNotAvailableException;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingInsert;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.EntityCache;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -27,19 +30,23 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static ru.practicum.shareit.booking.model.Status.*;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.*;
 
 @Service
 @Slf4j
 public class BookingService {
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("startDate"), Sort.Order.desc("id"));
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
-    private final ItemRepository itemRepository;
+    private final EntityCache entityCache;
 
     @Autowired
-    public BookingService(BookingRepository bookingRepository, UserRepository userRepository, ItemRepository itemRepository) {
+    public BookingService(BookingRepository bookingRepository, UserRepository userRepository,
+                          EntityCache entityCache) {
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
-        this.itemRepository = itemRepository;
+        this.entityCache = entityCache;
     }
 
     @Transactional
@@ -59,30 +66,14 @@ public class BookingService {
             throw new ValidationException("Booking cannot start or end in past");
         }
 
-        Item item = itemRepository.findById(booking.getItem().getId()).orElseThrow(() -> {
-            log.error("Item id {} not found", booking.getItem().getId());
-            return new ItemNotFoundException(String.format("Item id %s not found", booking.getItem().getId()));
-        });
-
-        if (!item.getIsAvailable()) {
-            log.error("Item id {} not available", booking.getItem().getId());
-            throw new ItemNotAvailableException(String.format("Item id %s not available", booking.getItem().getId()));
-        }
-
-        if (item.getOwnerId().equals(booking.getBooker().getId())) {
-            log.error("Booking own item is not aloud.");
-            throw new BookingNotAloudException("Booking own item is not aloud.");
-        }
-
-        User user = getUser(booking.getBooker().getId());
-
-        if (!isAvailableToBook(booking)) {
-            throw new ItemNotAvailableException("Item is already booked for this period.");
+        BookingInsert insert = bookingRepository.insertWaiting(booking);
+        if (!insert.isCreated()) {
+            throw rejection(insert.getRejection(), booking);
         }
+        booking = insert.getBooking();
+        log.info("Booking saved: {}", booking);
 
-        Booking savedBooking = bookingRepository.save(booking);
-        log.info("Booking saved: {}", savedBooking);
-        BookingResponseDto savedBookingRequestDto = BookingMapper.mapToDto(savedBooking, user, item);
+        BookingResponseDto savedBookingRequestDto = BookingMapper.mapToDto(booking);
         log.info("Booking mapped to DTO: {}", savedBookingRequestDto);
         return savedBookingRequestDto;
     }
@@ -105,72 +96,92 @@ public class BookingService {
         return bookingRequestDto;
     }
 
-    public List<BookingResponseDto> getUserBookings(Long bookerId, String state, int from, int size) {
+    public Slice<BookingResponseDto> getUserBookings(Long bookerId, String state, int from, int size) {
         log.info("Looking for bookings of user {} with status {}", bookerId, state);
         getUser(bookerId);
-        Page<Booking> bookings;
+        Slice<Booking> bookings;
         final PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
         Timestamp now = Timestamp.valueOf(LocalDateTime.now());
         log.info("Now is: {}.", now);
         switch (state) {
             case "ALL":
-                bookings = bookingRepository.findByBookerIdOrderByStartDateDesc(bookerId, page);
+                bookings = bookingRepository.findByBookerIdOrderByStartDateDescIdDesc(bookerId, page);
                 break;
             case "CURRENT":
-                bookings = bookingRepository.findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDesc(bookerId,
+                bookings = bookingRepository.findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDescIdDesc(bookerId,
                         now, now, page);
                 break;
             case "PAST":
-                bookings = bookingRepository.findByBookerIdAndEndDateBeforeOrderByStartDateDesc(bookerId, now, page);
+                bookings = bookingRepository.findByBookerIdAndEndDateBeforeOrderByStartDateDescIdDesc(bookerId, now, page);
                 break;
             case "FUTURE":
-                bookings = bookingRepository.findByBookerIdAndStartDateAfterOrderByStartDateDesc(bookerId, now, page);
+                bookings = bookingRepository.findByBookerIdAndStartDateAfterOrderByStartDateDescIdDesc(bookerId, now, page);
                 break;
             case "WAITING":
-                bookings = bookingRepository.findByBookerIdAndStatusEqualsOrderByStartDateDesc(bookerId, WAITING, page);
+                bookings = bookingRepository.findByBookerIdAndStatusEqualsOrderByStartDateDescIdDesc(bookerId, WAITING, page);
                 break;
             case "REJECTED":
-                bookings = bookingRepository.findByBookerIdAndStatusEqualsOrderByStartDateDesc(bookerId, REJECTED, page);
+                bookings = bookingRepository.findByBookerIdAndStatusEqualsOrderByStartDateDescIdDesc(bookerId, REJECTED, page);
                 break;
             default:
                 log.error("Incorrect 'state' value: {}", state);
                 throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
         }
-        return bookings.map(BookingMapper::mapToDto).getContent();
+        return bookings.map(BookingMapper::mapToDto);
     }
 
-    public List<BookingResponseDto> getOwnerBooking(Long userId, String state, int from, int size) {
+    public Slice<BookingResponseDto> getOwnerBooking(Long userId, String state, int from, int size) {
         log.info("Looking for bookings of owner {} with status {}", userId, state);
         getUser(userId);
-        Page<Booking> bookings;
+        Slice<Booking> bookings;
         final PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
         Timestamp now = Timestamp.valueOf(LocalDateTime.now());
         log.info("Now is: {}.", now);
         switch (state) {
             case "ALL":
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDateDesc(userId, page);
+                bookings = bookingRepository.findByItemOwnerIdOrderByStartDateDescIdDesc(userId, page);
                 break;
             case "CURRENT":
                 bookings = bookingRepository.findByItemOwnerIdAndStartDateBeforeAndEndDateAfterOrderById(
                         userId, now, now, page);
                 break;
             case "PAST":
-                bookings = bookingRepository.findByItemOwnerIdAndEndDateBeforeOrderByStartDateDesc(userId, now, page);
+                bookings = bookingRepository.findByItemOwnerIdAndEndDateBeforeOrderByStartDateDescIdDesc(userId, now, page);
                 break;
             case "FUTURE":
-                bookings = bookingRepository.findByItemOwnerIdAndStartDateAfterOrderByStartDateDesc(userId, now, page);
+                bookings = bookingRepository.findByItemOwnerIdAndStartDateAfterOrderByStartDateDescIdDesc(userId, now, page);
                 break;
             case "WAITING":
-                bookings = bookingRepository.findByItemOwnerIdAndStatusEqualsOrderByStartDateDesc(userId, WAITING, page);
+                bookings = bookingRepository.findByItemOwnerIdAndStatusEqualsOrderByStartDateDescIdDesc(userId, WAITING, page);
                 break;
             case "REJECTED":
-                bookings = bookingRepository.findByItemOwnerIdAndStatusEqualsOrderByStartDateDesc(userId, REJECTED, page);
+                bookings = bookingRepository.findByItemOwnerIdAndStatusEqualsOrderByStartDateDescIdDesc(userId, REJECTED, page);
                 break;
             default:
                 log.error("Incorrect state value: {}", state);
                 throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
         }
-        return bookings.map(BookingMapper::mapToDto).getContent();
+        return bookings.map(BookingMapper::mapToDto);
+    }
+
+    public Slice<BookingResponseDto> getUserBookingsAfter(Long bookerId, String state, String after, int size) {
+        log.info("Looking for bookings of user {} with status {} after cursor {}", bookerId, state, after);
+        getUser(bookerId);
+        Specification<Booking> specification = Specification.where(hasBooker(bookerId))
+                .and(stateSpecification(state))
+                .and(isAfter(Cursor.decodeWithPosition(after)));
+        return bookingRepository.findSlice(specification, PageRequest.of(0, size, KEYSET_SORT))
+                .map(BookingMapper::mapToDto);
+    }
+
+    public Slice<BookingResponseDto> getOwnerBookingAfter(Long userId, String state, String after, int size) {
+        log.info("Looking for bookings of owner {} with status {} after cursor {}", userId, state, after);
+        getUser(userId);
+        Specification<Booking> specification = Specification.where(hasItemOwner(userId))
+                .and(stateSpecification(state))
+                .and(isAfter(Cursor.decodeWithPosition(after)));
+        return bookingRepository.findSlice(specification, PageRequest.of(0, size, KEYSET_SORT))
+                .map(BookingMapper::mapToDto);
     }
 
     @Transactional
@@ -201,19 +212,52 @@ public class BookingService {
         return BookingMapper.mapToDto(booking);
     }
 
-    private boolean isAvailableToBook(Booking booking) {
-        List<Booking> bookings = bookingRepository.findByItemId(booking.getItem().getId());
-        for (Booking b : bookings) {
-            if (!(booking.getEndDate().before(b.getStartDate()) || booking.getStartDate().after(b.getEndDate()))) {
-                log.info("Booking not available. Overlap with {}", b);
-                return false;
-            }
+    private Specification<Booking> stateSpecification(String state) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        log.info("Now is: {}.", now);
+        switch (state) {
+            case "ALL":
+                return null;
+            case "CURRENT":
+                return isCurrent(now);
+            case "PAST":
+                return isPast(now);
+            case "FUTURE":
+                return isFuture(now);
+            case "WAITING":
+                return hasStatus(WAITING);
+            case "REJECTED":
+                return hasStatus(REJECTED);
+            default:
+                log.error("Incorrect 'state' value: {}", state);
+                throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
+        }
+    }
+
+    private RuntimeException rejection(BookingInsert.Rejection rejection, Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Long bookerId = booking.getBooker().getId();
+        switch (rejection) {
+            case ITEM_NOT_FOUND:
+                log.error("Item id {} not found", itemId);
+                return new ItemNotFoundException(String.format("Item id %s not found", itemId));
+            case ITEM_NOT_AVAILABLE:
+                log.error("Item id {} not available", itemId);
+                return new ItemNotAvailableException(String.format("Item id %s not available", itemId));
+            case OWN_ITEM:
+                log.error("Booking own item is not aloud.");
+                return new BookingNotAloudException("Booking own item is not aloud.");
+            case BOOKER_NOT_FOUND:
+                log.error("User id {} not found", bookerId);
+                return new UserNotFoundException(String.format("User id %s not found", bookerId));
+            default:
+                log.info("Booking not available. Overlap with existing booking of item {}", itemId);
+                return new ItemNotAvailableException("Item is already booked for this period.");
         }
-        return true;
     }
 
     private User getUser(Long userId) {
-        return userRepository.findById(userId).orElseThrow(() -> {
+        return entityCache.findUser(userId, userRepository::findById).orElseThrow(() -> {
             log.error("User id {} not found", userId);
             return new UserNotFoundException(String.format("User id %s not found", userId));
         });
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Users and items by id, kept in server memory so existence checks and author lookups skip the database.
+ * Entries are evicted through {@link InvalidationBus} after every write on any node; expiry bounds how long
+ * a change made outside the services, or a lost broadcast, can go unnoticed.
+ * <p>
+ * Cached entities are detached and shared between requests. They are only for reading plain columns:
+ * anything that modifies an entity, locks it or walks a lazy association has to load it from the repository.
+ * Missing ids are not cached.
+ */
+@Component
+public class EntityCache implements EntityChangeListener, MeterBinder {
+    private final boolean enabled;
+    private final Cache<Long, User> users;
+    private final Cache<Long, Item> items;
+
+    public EntityCache(EntityCacheProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.users = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxUsers())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        this.items = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxItems())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+    }
+
+    public Optional<User> findUser(Long userId, Function<Long, Optional<User>> loader) {
+        return find(users, userId, loader);
+    }
+
+    public Optional<Item> findItem(Long itemId, Function<Long, Optional<Item>> loader) {
+        return find(items, itemId, loader);
+    }
+
+    @Override
+    public void onChange(EntityChange change) {
+        switch (change.getKind()) {
+            case USER_UPDATED:
+                users.invalidate(change.getId());
+                break;
+            case USER_DELETED:
+                // The delete cascades to the user's items in the database.
+                users.invalidate(change.getId());
+                items.invalidateAll();
+                break;
+            case ITEM:
+                items.invalidate(change.getId());
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void onMissedChanges() {
+        users.invalidateAll();
+        items.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, users, "shareit.users");
+        CaffeineCacheMetrics.monitor(registry, items, "shareit.items");
+    }
+
+    private <T> Optional<T> find(Cache<Long, T> cache, Long id, Function<Long, Optional<T>> loader) {
+        if (!enabled || id == null) {
+            return loader.apply(id);
+        }
+        // A load in progress holds up an eviction of the same id, so a value read before a write is never kept.
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.entity-cache")
+public class EntityCacheProperties {
+    private boolean enabled = true;
+    private long maxUsers = 10_000;
+    private long maxItems = 10_000;
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
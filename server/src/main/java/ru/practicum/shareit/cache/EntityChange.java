@@ -0,0 +1,34 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Value;
+
+/**
+ * A committed write that makes cached copies of an entity, or ETags built from it, out of date.
+ */
+@Value
+public class EntityChange {
+    Kind kind;
+    long id;
+
+    public String encode() {
+        return kind + ":" + id;
+    }
+
+    public static EntityChange decode(String value) {
+        int separator = value.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed entity change: " + value);
+        }
+        return new EntityChange(Kind.valueOf(value.substring(0, separator)),
+                Long.parseLong(value.substring(separator + 1)));
+    }
+
+    public enum Kind {
+        USER_CREATED,
+        USER_UPDATED,
+        USER_DELETED,
+        ITEM_CREATED,
+        ITEM,
+        REQUEST
+    }
+}
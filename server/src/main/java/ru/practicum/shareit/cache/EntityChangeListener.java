@@ -0,0 +1,14 @@
+package ru.practicum.shareit.cache;
+
+/**
+ * Something on this node that has to forget an entity once it changes, on this node or any other.
+ */
+public interface EntityChangeListener {
+
+    void onChange(EntityChange change);
+
+    /**
+     * Called when changes from other nodes may have been lost, for example while the transport reconnected.
+     */
+    void onMissedChanges();
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+/**
+ * Delivers messages synchronously to every subscriber of the same channel in this JVM.
+ */
+public class InJvmInvalidationTransport implements InvalidationTransport, DisposableBean {
+    private static final Map<String, Set<Consumer<String>>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final Set<Consumer<String>> subscribers;
+    private volatile Consumer<String> receiver;
+
+    public InJvmInvalidationTransport(String channel) {
+        this.subscribers = CHANNELS.computeIfAbsent(channel, c -> new CopyOnWriteArraySet<>());
+    }
+
+    @Override
+    public void publish(String message) {
+        for (Consumer<String> subscriber : subscribers) {
+            subscriber.accept(message);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> receiver, Runnable onGap) {
+        this.receiver = receiver;
+        subscribers.add(receiver);
+    }
+
+    @Override
+    public void destroy() {
+        if (receiver != null) {
+            subscribers.remove(receiver);
+        }
+    }
+}
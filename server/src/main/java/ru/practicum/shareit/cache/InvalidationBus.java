@@ -0,0 +1,118 @@
+package ru.practicum.shareit.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Entry point for services after a write: forgets the entity on this node right away and tells every other
+ * node to do the same. Messages carry the id of the node that sent them, so a node skips its own.
+ * <p>
+ * Called inside a transaction, this node forgets the entity only once the transaction commits; until then a
+ * concurrent read would cache the row being replaced again. The PostgreSQL transport's notification joins the
+ * transaction as well, so other nodes hear of the change on commit and not at all on rollback.
+ */
+@Component
+@Slf4j
+public class InvalidationBus implements InitializingBean {
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<EntityChangeListener> listeners;
+    private final InvalidationTransport transport;
+
+    public InvalidationBus(List<EntityChangeListener> listeners, InvalidationTransport transport) {
+        this.listeners = listeners;
+        this.transport = transport;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        transport.subscribe(this::receive, this::missedChanges);
+    }
+
+    public void userCreated(Long userId) {
+        publish(EntityChange.Kind.USER_CREATED, userId);
+    }
+
+    public void userChanged(Long userId) {
+        publish(EntityChange.Kind.USER_UPDATED, userId);
+    }
+
+    public void userDeleted(Long userId) {
+        publish(EntityChange.Kind.USER_DELETED, userId);
+    }
+
+    public void itemCreated(Long itemId) {
+        publish(EntityChange.Kind.ITEM_CREATED, itemId);
+    }
+
+    public void itemChanged(Long itemId) {
+        publish(EntityChange.Kind.ITEM, itemId);
+    }
+
+    public void requestChanged(Long requestId) {
+        publish(EntityChange.Kind.REQUEST, requestId);
+    }
+
+    private void publish(EntityChange.Kind kind, Long id) {
+        if (id == null) {
+            return;
+        }
+        EntityChange change = new EntityChange(kind, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+        try {
+            transport.publish(nodeId + " " + change.encode());
+        } catch (RuntimeException e) {
+            // Other nodes catch up when their cache entries expire.
+            log.warn("Could not broadcast {}.", change, e);
+        }
+    }
+
+    private void receive(String message) {
+        int separator = message.indexOf(' ');
+        if (separator < 0) {
+            log.warn("Malformed invalidation message: {}", message);
+            missedChanges();
+            return;
+        }
+        if (nodeId.equals(message.substring(0, separator))) {
+            return;
+        }
+        EntityChange change;
+        try {
+            change = EntityChange.decode(message.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            log.warn("Malformed invalidation message: {}", message);
+            missedChanges();
+            return;
+        }
+        log.debug("Applying {} from another node.", change);
+        apply(change);
+    }
+
+    private void apply(EntityChange change) {
+        for (EntityChangeListener listener : listeners) {
+            listener.onChange(change);
+        }
+    }
+
+    private void missedChanges() {
+        log.info("Invalidation messages may have been lost, forgetting every cached entity.");
+        for (EntityChangeListener listener : listeners) {
+            listener.onMissedChanges();
+        }
+    }
+}
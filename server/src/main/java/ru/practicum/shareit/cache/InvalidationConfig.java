@@ -0,0 +1,20 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class InvalidationConfig {
+
+    @Bean
+    public InvalidationTransport invalidationTransport(InvalidationProperties properties,
+                                                       ObjectProvider<DataSource> dataSource) {
+        if (properties.getTransport() == InvalidationProperties.Transport.POSTGRES) {
+            return new PostgresInvalidationTransport(dataSource.getObject(), properties);
+        }
+        return new InJvmInvalidationTransport(properties.getChannel());
+    }
+}
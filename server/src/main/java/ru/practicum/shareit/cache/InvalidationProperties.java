@@ -0,0 +1,24 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.invalidation")
+public class InvalidationProperties {
+    private Transport transport = Transport.IN_JVM;
+    private String channel = "shareit_invalidation";
+    // How long the listener waits for notifications before it checks whether it should stop.
+    private Duration pollTimeout = Duration.ofMillis(500);
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+
+    public enum Transport {
+        // Only nodes in the same JVM see each other: a single server, or several contexts in a test.
+        IN_JVM,
+        POSTGRES
+    }
+}
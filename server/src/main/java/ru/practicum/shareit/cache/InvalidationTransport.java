@@ -0,0 +1,17 @@
+package ru.practicum.shareit.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries encoded entity changes between server nodes. Every subscriber receives every message,
+ * including the ones published by its own node.
+ */
+public interface InvalidationTransport {
+
+    void publish(String message);
+
+    /**
+     * Starts delivering messages to {@code receiver}. {@code onGap} runs whenever messages may have been dropped.
+     */
+    void subscribe(Consumer<String> receiver, Runnable onGap);
+}
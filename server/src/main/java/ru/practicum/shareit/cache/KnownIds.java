@@ -0,0 +1,270 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Answers "this user or item does not exist" without the database, so lookups of random ids stay cheap.
+ * <p>
+ * A Bloom filter holds every existing id. It is filled from the database once the application is ready,
+ * and after that from creations reported on the invalidation bus, from any node. Identity ids are not
+ * committed, nor announced, in id order, so a miss in the filter is only trusted below a low-water mark:
+ * an id that was already the highest known one at least the settle time ago. Ids far above the highest
+ * known id are unknown too. Deleted ids and false positives of the filter get remembered for a short
+ * time once the database has missed them, unless the id was created while the lookup ran.
+ * <p>
+ * Until the filter is built, and while it is rebuilt after lost bus messages, every id counts as known.
+ */
+@Component
+@Slf4j
+public class KnownIds implements EntityChangeListener, MeterBinder {
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Ids users;
+    private final Ids items;
+
+    public KnownIds(UserRepository userRepository, ItemRepository itemRepository,
+                    PlatformTransactionManager transactionManager, KnownIdsProperties properties) {
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = properties.isEnabled();
+        this.users = new Ids(properties);
+        this.items = new Ids(properties);
+    }
+
+    public boolean isUnknownUser(Long userId) {
+        return users.isUnknown(userId);
+    }
+
+    public boolean isUnknownItem(Long itemId) {
+        return items.isUnknown(itemId);
+    }
+
+    /**
+     * Taken before a user lookup in the database and passed on to {@link #userMissing}.
+     */
+    public long userGeneration() {
+        return users.generation();
+    }
+
+    /**
+     * Taken before an item lookup in the database and passed on to {@link #itemMissing}.
+     */
+    public long itemGeneration() {
+        return items.generation();
+    }
+
+    /**
+     * Called after the database found no user with this id.
+     */
+    public void userMissing(Long userId, long generation) {
+        users.missing(userId, generation);
+    }
+
+    /**
+     * Called after the database found no item with this id.
+     */
+    public void itemMissing(Long itemId, long generation) {
+        items.missing(itemId, generation);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuild("users", users, userRepository::streamAllIds);
+        rebuild("items", items, itemRepository::streamAllIds);
+    }
+
+    @Override
+    public void onChange(EntityChange change) {
+        switch (change.getKind()) {
+            case USER_CREATED:
+                users.added(change.getId());
+                break;
+            case USER_DELETED:
+                users.deleted(change.getId());
+                break;
+            case ITEM_CREATED:
+                items.added(change.getId());
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void onMissedChanges() {
+        // Creations may be among the lost messages: without a rebuild their ids would stay unknown.
+        rebuild();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        users.bindTo(registry, "users");
+        items.bindTo(registry, "items");
+    }
+
+    private void rebuild(String name, Ids ids, Supplier<Stream<Long>> allIds) {
+        long started = System.nanoTime();
+        long count = transactionTemplate.execute(status -> {
+            try (Stream<Long> stream = allIds.get()) {
+                return ids.rebuild(stream);
+            }
+        });
+        log.info("Known {} ids rebuilt: {} ids in {} ms.", name, count, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static final class Ids {
+        private final long expectedIds;
+        private final double falsePositiveRate;
+        private final long idHeadroom;
+        private final long settleNanos;
+        private final Cache<Long, Boolean> missing;
+        private final AtomicLong maxId = new AtomicLong();
+        // Counts additions, so a database miss can tell whether the id was created meanwhile.
+        private final AtomicLong generation = new AtomicLong();
+        private final LongAdder shortCircuits = new LongAdder();
+        // Null until built, and while rebuilding: every id is known then.
+        private volatile IdBloomFilter filter;
+        private volatile IdBloomFilter building;
+        // Every id at or below it has been created long enough ago to have reached this node.
+        private volatile long lowWaterMark;
+        private volatile long nextPromotion;
+        // The highest known id at candidateSince; becomes the low-water mark once it has settled.
+        private long candidate;
+        private long candidateSince;
+
+        Ids(KnownIdsProperties properties) {
+            this.expectedIds = properties.getExpectedIds();
+            this.falsePositiveRate = properties.getFalsePositiveRate();
+            this.idHeadroom = properties.getIdHeadroom();
+            this.settleNanos = properties.getSettleTime().toNanos();
+            this.missing = Caffeine.newBuilder()
+                    .maximumSize(properties.getMaxMissing())
+                    .expireAfterWrite(properties.getMissingTtl())
+                    .build();
+        }
+
+        boolean isUnknown(Long id) {
+            IdBloomFilter current = filter;
+            if (current == null || id == null) {
+                return false;
+            }
+            boolean unknown = id > maxId.get() + idHeadroom
+                    || (id <= lowWaterMark() && !current.mightContain(id))
+                    || missing.getIfPresent(id) != null;
+            if (unknown) {
+                shortCircuits.increment();
+            }
+            return unknown;
+        }
+
+        void added(long id) {
+            IdBloomFilter next = building;
+            if (next != null) {
+                next.add(id);
+            }
+            IdBloomFilter current = filter;
+            if (current != null) {
+                current.add(id);
+            }
+            maxId.accumulateAndGet(id, Math::max);
+            generation.incrementAndGet();
+            missing.invalidate(id);
+        }
+
+        long generation() {
+            return generation.get();
+        }
+
+        void missing(Long id, long lookupGeneration) {
+            IdBloomFilter current = filter;
+            if (current == null || id == null) {
+                return;
+            }
+            // The creation may have been announced after the lookup missed it but before this call.
+            if (generation.get() != lookupGeneration && current.mightContain(id)) {
+                return;
+            }
+            missing.put(id, Boolean.TRUE);
+        }
+
+        void deleted(long id) {
+            if (filter != null) {
+                missing.put(id, Boolean.TRUE);
+            }
+        }
+
+        private long lowWaterMark() {
+            long now = System.nanoTime();
+            if (now - nextPromotion >= 0) {
+                promote(now);
+            }
+            return lowWaterMark;
+        }
+
+        private synchronized void promote(long now) {
+            if (now - candidateSince < settleNanos) {
+                return;
+            }
+            lowWaterMark = Math.max(lowWaterMark, candidate);
+            candidate = maxId.get();
+            candidateSince = now;
+            nextPromotion = now + settleNanos;
+        }
+
+        synchronized long rebuild(Stream<Long> ids) {
+            filter = null;
+            missing.invalidateAll();
+            lowWaterMark = 0;
+            // Ids committed from here on are either in the scan or added through the bus.
+            building = new IdBloomFilter(expectedIds, falsePositiveRate);
+            long count = 0;
+            for (Iterator<Long> iterator = ids.iterator(); iterator.hasNext(); count++) {
+                added(iterator.next());
+            }
+            // Ids below the scanned maximum may still commit after the scan, so they settle like any other.
+            candidate = maxId.get();
+            candidateSince = System.nanoTime();
+            nextPromotion = candidateSince + settleNanos;
+            filter = building;
+            building = null;
+            return count;
+        }
+
+        void bindTo(MeterRegistry registry, String name) {
+            FunctionCounter.builder("shareit.known-ids.short-circuits", shortCircuits, LongAdder::sum)
+                    .description("Lookups answered as not found without the database")
+                    .tag("entity", name)
+                    .register(registry);
+            Gauge.builder("shareit.known-ids.missing", missing, Cache::estimatedSize)
+                    .description("Ids remembered as missing after a database lookup")
+                    .tag("entity", name)
+                    .register(registry);
+        }
+    }
+}
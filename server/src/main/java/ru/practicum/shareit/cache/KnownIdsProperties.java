@@ -0,0 +1,23 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.known-ids")
+public class KnownIdsProperties {
+    private boolean enabled = true;
+    // Per entity type; past it the false positive rate grows and more lookups reach the database.
+    private long expectedIds = 1_000_000;
+    private double falsePositiveRate = 0.01;
+    // Ids this far above the highest known one are taken as not created yet, even by other nodes.
+    private long idHeadroom = 10_000;
+    // How long a new highest id waits before misses below it are trusted: covers slow commits and bus delay.
+    private Duration settleTime = Duration.ofSeconds(10);
+    private Duration missingTtl = Duration.ofSeconds(30);
+    private long maxMissing = 100_000;
+}
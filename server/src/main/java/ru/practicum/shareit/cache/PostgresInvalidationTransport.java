@@ -0,0 +1,110 @@
+package ru.practicum.shareit.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Broadcasts over PostgreSQL {@code LISTEN/NOTIFY}. A notification sent inside a transaction is delivered
+ * when it commits, so other nodes never evict ahead of the write they are told about.
+ * <p>
+ * One pooled connection per node stays checked out for listening. Notifications sent while it is down
+ * are lost, so every reconnect is reported as a gap.
+ */
+@Slf4j
+public class PostgresInvalidationTransport implements InvalidationTransport, DisposableBean {
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final String channel;
+    private final int pollTimeoutMillis;
+    private final long reconnectDelayMillis;
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresInvalidationTransport(DataSource dataSource, InvalidationProperties properties) {
+        if (!CHANNEL.matcher(properties.getChannel()).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel: " + properties.getChannel());
+        }
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.channel = properties.getChannel();
+        this.pollTimeoutMillis = (int) properties.getPollTimeout().toMillis();
+        this.reconnectDelayMillis = properties.getReconnectDelay().toMillis();
+    }
+
+    @Override
+    public void publish(String message) {
+        jdbcTemplate.execute("select pg_notify(?, ?)", (PreparedStatementCallback<Boolean>) statement -> {
+            statement.setString(1, channel);
+            statement.setString(2, message);
+            return statement.execute();
+        });
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<String> receiver, Runnable onGap) {
+        running = true;
+        listener = new Thread(() -> listen(receiver, onGap), "invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public synchronized void destroy() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.join(pollTimeoutMillis + 1000L);
+        }
+    }
+
+    private void listen(Consumer<String> receiver, Runnable onGap) {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+                if (reconnecting) {
+                    log.info("Listening on {} again.", channel);
+                    onGap.run();
+                }
+                reconnecting = true;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receiver.accept(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    log.warn("Invalidation listener on {} failed, reconnecting in {} ms.", channel,
+                            reconnectDelayMillis, e);
+                    sleep();
+                }
+            }
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(reconnectDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.cache;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Keeps the Hibernate second-level cache in step with writes Hibernate cannot see: writes on other nodes,
+ * and rows that change through another mapping of the same column. A comment is saved through
+ * {@code Comment.item}, so {@code Item.comments} is never told about it; the same goes for an item joining
+ * {@code Request.items}. Cascading deletes in the database bypass Hibernate altogether.
+ */
+@Component
+public class SecondLevelCacheEvictor implements EntityChangeListener {
+    private static final String ITEM_COMMENTS = Item.class.getName() + ".comments";
+    private static final String REQUEST_ITEMS = Request.class.getName() + ".items";
+
+    private final Cache cache;
+
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    @Override
+    public void onChange(EntityChange change) {
+        switch (change.getKind()) {
+            case USER_UPDATED:
+                cache.evictEntityData(User.class, change.getId());
+                break;
+            case USER_DELETED:
+                // Items, requests and comments of the user go with it.
+                cache.evictEntityData(User.class, change.getId());
+                cache.evictEntityData(Item.class);
+                cache.evictEntityData(Comment.class);
+                cache.evictEntityData(Request.class);
+                cache.evictCollectionData(ITEM_COMMENTS);
+                cache.evictCollectionData(REQUEST_ITEMS);
+                cache.evictQueryRegions();
+                break;
+            case ITEM:
+                cache.evictEntityData(Item.class, change.getId());
+                cache.evictCollectionData(ITEM_COMMENTS, change.getId());
+                break;
+            case REQUEST:
+                // Cached request lists only see inserts made through this node's session factory.
+                cache.evictEntityData(Request.class, change.getId());
+                cache.evictCollectionData(REQUEST_ITEMS, change.getId());
+                cache.evictQueryRegions();
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void onMissedChanges() {
+        cache.evictAllRegions();
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.http.HttpHeaders;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Enumeration;
+
+public class ETags {
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    /**
+     * The tag of a response built from a row with the given version column. Every node derives the same tag
+     * from the database, so it survives restarts and requests balanced onto another node.
+     */
+    public static String tag(long version) {
+        return Long.toString(version);
+    }
+
+    /**
+     * Answers 304 when If-None-Match already holds the tag. The caller must then return without a body.
+     */
+    public static boolean notModified(HttpServletRequest request, HttpServletResponse response, String tag) {
+        if (!matches(request.getHeaders(HttpHeaders.IF_NONE_MATCH), quote(tag))) {
+            return false;
+        }
+        write(response, tag);
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        return true;
+    }
+
+    public static void write(HttpServletResponse response, String tag) {
+        response.setHeader(HttpHeaders.ETAG, WEAK_PREFIX + quote(tag));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+    }
+
+    private static boolean matches(Enumeration<String> ifNoneMatch, String quotedTag) {
+        while (ifNoneMatch != null && ifNoneMatch.hasMoreElements()) {
+            for (String candidate : ifNoneMatch.nextElement().split(",")) {
+                candidate = candidate.trim();
+                if (candidate.startsWith(WEAK_PREFIX)) {
+                    candidate = candidate.substring(WEAK_PREFIX.length());
+                }
+                if (candidate.equals(quotedTag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+}
@@ -1,9 +1,13 @@
 package ru.practicum.shareit.exceptions;
 
+/**
+ * Expected outcome of a lookup, answered with 404. Carries no stack trace: filling it in would cost more
+ * than the lookup itself, and nothing reads it.
+ */
 public class NotFoundException extends RuntimeException {
 
     public NotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
 }
@@ -2,16 +2,21 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.etag.ETags;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
-import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.SliceHeaders;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -59,19 +64,40 @@ public class ItemController {
     @GetMapping
     public List<ItemResponseDto> getAllItems(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
                                              @RequestParam int from,
-                                             @RequestParam int size) {
+                                             @RequestParam int size,
+                                             @RequestParam(defaultValue = "true") boolean comments,
+                                             @RequestParam(required = false) String after,
+                                             HttpServletResponse response) {
         log.info("Getting all items. User id: {}.", userId);
-        List<Item> items = itemService.getAllItems(userId, from, size);
-        log.info("Number of items found: {}", items.size());
-        return items.stream().map(ItemMapper::mapToDto).collect(Collectors.toList());
+        Slice<Item> items;
+        if (after == null) {
+            items = itemService.getAllItems(userId, from, size);
+        } else {
+            items = itemService.getAllItemsAfter(userId, after, size);
+        }
+        SliceHeaders.write(response, items, item -> Cursor.of(item.getId()));
+        log.info("Number of items found: {}", items.getNumberOfElements());
+        return items.stream().map(item -> mapToDto(item, comments)).collect(Collectors.toList());
     }
 
     @GetMapping("/{itemId}")
     public ItemResponseDto getItem(@PathVariable Long itemId,
-                                   @RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId) {
+                                   @RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) {
         log.info("Looking for item id {} by user {}", itemId, userId);
+        Item cachedItem = itemService.getCachedItem(itemId);
+        // The owner's view carries bookings, which change with time, so only other users get a tag.
+        String etag = cachedItem.getOwnerId().equals(userId) ? null : ETags.tag(cachedItem.getVersion());
+        if (etag != null && ETags.notModified(request, response, etag)) {
+            log.info("Item id {} not modified for user {}", itemId, userId);
+            return null;
+        }
         Item item = itemService.getItem(itemId, userId);
         log.info("Item found: {}", item);
+        if (etag != null) {
+            ETags.write(response, etag);
+        }
         ItemResponseDto itemResponseDto = mapToDto(item);
         log.info("Item mapped to DTO: {}", itemResponseDto);
         return itemResponseDto;
@@ -81,12 +107,15 @@ public class ItemController {
     public List<ItemResponseDto> searchItem(@RequestParam String text,
                                             @RequestHeader("X-Sharer-User-Id") Long userId,
                                             @RequestParam(defaultValue = "0") int from,
-                                            @RequestParam(defaultValue = "10") int size) {
+                                            @RequestParam(defaultValue = "10") int size,
+                                            @RequestParam(defaultValue = "true") boolean comments,
+                                            HttpServletResponse response) {
 
         log.info("Looking for item by key word: \"{}\". User id: {}", text, userId);
-        List<Item> items = itemService.searchItem(text, userId, from, size);
-        log.info("Number of items found: {}", items.size());
-        return items.stream().map(ItemMapper::mapToDto).collect(Collectors.toList());
+        Slice<Item> items = itemService.searchItem(text, userId, from, size);
+        SliceHeaders.write(response, items);
+        log.info("Number of items found: {}", items.getNumberOfElements());
+        return items.stream().map(item -> mapToDto(item, comments)).collect(Collectors.toList());
     }
 
     @DeleteMapping("/{itemId}")
@@ -44,6 +44,10 @@ public class ItemMapper {
     }
 
     public static ItemResponseDto mapToDto(Item item) {
+        return mapToDto(item, true);
+    }
+
+    public static ItemResponseDto mapToDto(Item item, boolean withComments) {
         ItemResponseDto itemDto = ItemResponseDto.builder()
                 .id(item.getId())
                 .name(item.getName())
@@ -51,7 +55,7 @@ public class ItemMapper {
                 .available(item.getIsAvailable())
                 .build();
 
-        if (item.getComments() != null) {
+        if (withComments && item.getComments() != null) {
             itemDto.setComments(item.getComments().stream()
                     .map(CommentMapper::mapToDto)
                     .collect(Collectors.toList()));
@@ -4,6 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.request.model.Request;
 
@@ -18,6 +21,8 @@ import java.util.List;
 @Builder
 @Entity
 @Table(name = "items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 public class Item {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -35,14 +40,22 @@ public class Item {
 
     private Long ownerId;
 
-    @OneToMany(fetch = FetchType.EAGER)
+    @OneToMany(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item-comments")
     private List<Comment> comments = new ArrayList<>();
 
     @ManyToOne
     @JoinColumn(name = "request_id")
     private Request request;
 
+    /**
+     * Moves on with every change to what other users see in GET /items/{id}: the item itself, its comments and
+     * their authors' names. The ETag of that response.
+     */
+    private long version;
+
     private transient Booking lastBooking;
 
     private transient Booking nextBooking;
@@ -60,7 +73,6 @@ public class Item {
                 ", description='" + description + '\'' +
                 ", isAvailable=" + isAvailable +
                 ", ownerId=" + ownerId +
-                ", comments=" + comments +
                 ", request=" + requestId +
                 ", lastBooking=" + lastBooking +
                 ", nextBooking=" + nextBooking +
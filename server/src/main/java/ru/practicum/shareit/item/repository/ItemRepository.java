@@ -1,14 +1,45 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    Page<Item> findAllByOwnerIdOrderById(Long ownerId, Pageable page);
+    Slice<Item> findAllByOrderById(Pageable page);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Item> findLockedById(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in (select c.item.id from Comment c where c.author.id = ?1) order by i.id")
+    List<Item> findLockedByCommentAuthor(Long authorId);
+
+    Slice<Item> findAllByOwnerIdOrderById(Long ownerId, Pageable page);
+
+    Slice<Item> findAllByIdGreaterThanOrderById(Long itemId, Pageable page);
+
+    Slice<Item> findAllByOwnerIdAndIdGreaterThanOrderById(Long ownerId, Long itemId, Pageable page);
+
+    @Query(value = "select i from Item i where " +
+            "i.isAvailable = true and " +
+            "(upper(i.name) like ?1 escape '\\' or upper(i.description) like ?1 escape '\\') " +
+            "order by " +
+            "case when upper(i.name) like ?2 escape '\\' then 0 " +
+            "when upper(i.name) like ?1 escape '\\' then 1 " +
+            "else 2 end, i.id")
+    Slice<Item> searchAvailableItems(String containsPattern, String prefixPattern, Pageable page);
 
-    Page<Item> findItemByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndIsAvailableIsTrue(String text,
-                                                                                                       String text2,
-                                                                                                       Pageable page);
+    @Query("select i.id from Item i")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Long> streamAllIds();
 }
@@ -1,19 +1,27 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.cache.InvalidationBus;
+import ru.practicum.shareit.cache.KnownIds;
 import ru.practicum.shareit.item.exceptions.CommentNotAllowedException;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -22,6 +30,9 @@ import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 @Slf4j
@@ -30,30 +41,44 @@ public class ItemService {
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final RequestRepository requestRepository;
+    private final EntityCache entityCache;
+    private final InvalidationBus invalidationBus;
+    private final KnownIds knownIds;
 
     @Autowired
     public ItemService(ItemRepository itemRepository, UserRepository userRepository,
-                       BookingRepository bookingRepository, CommentRepository commentRepository) {
+                       BookingRepository bookingRepository, CommentRepository commentRepository,
+                       RequestRepository requestRepository, EntityCache entityCache,
+                       InvalidationBus invalidationBus, KnownIds knownIds) {
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
+        this.requestRepository = requestRepository;
+        this.entityCache = entityCache;
+        this.invalidationBus = invalidationBus;
+        this.knownIds = knownIds;
     }
 
+    @Transactional
     public Item addItem(Item item) {
         log.info("Adding item {}", item);
-        User user = userRepository.findById(item.getOwnerId()).orElseThrow(() -> {
+        User user = entityCache.findUser(item.getOwnerId(), userRepository::findById).orElseThrow(() -> {
             log.info("Item id {} not found ", item.getId());
             return new ItemNotFoundException(String.format("User id %s not found", item.getOwnerId()));
         });
         Item savedItem = itemRepository.save(item);
+        invalidationBus.itemCreated(item.getId());
+        requestChanged(item);
         log.info("Item added {}.", item);
         return savedItem;
     }
 
+    @Transactional
     public Item updateItem(Item item) {
         log.info("Updating item with: {}", item);
-        Item savedItem = itemRepository.findById(item.getId()).orElseThrow(() -> {
+        Item savedItem = itemRepository.findLockedById(item.getId()).orElseThrow(() -> {
             log.info("Item id {} not found ", item.getId());
             return new ItemNotFoundException(String.format("Item id %s not found", item.getId()));
         });
@@ -71,30 +96,74 @@ public class ItemService {
         if (item.getIsAvailable() != null) {
             savedItem.setIsAvailable(item.getIsAvailable());
         }
-        log.info("Item updated: {}", savedItem);
-        return itemRepository.save(savedItem);
+        savedItem.setVersion(savedItem.getVersion() + 1);
+        Item updatedItem = itemRepository.save(savedItem);
+        invalidationBus.itemChanged(savedItem.getId());
+        requestChanged(savedItem);
+        log.info("Item updated: {}", updatedItem);
+        return updatedItem;
     }
 
-    public List<Item> getAllItems(Long userId, int from, int size) {
-        Page<Item> items;
+    public Slice<Item> getAllItems(Long userId, int from, int size) {
+        Slice<Item> items;
         final PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
         if (userId == null) {
             log.info("userId is null. Getting all items");
-            items = itemRepository.findAll(page);
+            items = itemRepository.findAllByOrderById(page);
         } else {
             log.info("Getting all items of user id: {}", userId);
             items = itemRepository.findAllByOwnerIdOrderById(userId, page);
             setBookingsToItems(items.getContent());
         }
 
-        log.info("Number of items found: {}", items);
-        return items.getContent();
+        log.info("Number of items found: {}", items.getNumberOfElements());
+        return items;
+    }
+
+    public Slice<Item> getAllItemsAfter(Long userId, String after, int size) {
+        Slice<Item> items;
+        final PageRequest page = PageRequest.of(0, size);
+        Long afterId = Cursor.decode(after).getId();
+        if (userId == null) {
+            log.info("userId is null. Getting all items after id {}", afterId);
+            items = itemRepository.findAllByIdGreaterThanOrderById(afterId, page);
+        } else {
+            log.info("Getting all items of user id: {} after id {}", userId, afterId);
+            items = itemRepository.findAllByOwnerIdAndIdGreaterThanOrderById(userId, afterId, page);
+            setBookingsToItems(items.getContent());
+        }
+
+        log.info("Number of items found: {}", items.getNumberOfElements());
+        return items;
+    }
+
+    /**
+     * The item as {@link EntityCache} holds it: enough to read its owner and version before anything else
+     * is loaded, but not to be modified or to have its comments walked.
+     */
+    public Item getCachedItem(Long itemId) {
+        if (knownIds.isUnknownItem(itemId)) {
+            log.info("Item id {} not found ", itemId);
+            throw new ItemNotFoundException(String.format("Item id %s not found", itemId));
+        }
+        long generation = knownIds.itemGeneration();
+        return entityCache.findItem(itemId, itemRepository::findById).orElseThrow(() -> {
+            log.info("Item id {} not found ", itemId);
+            knownIds.itemMissing(itemId, generation);
+            return new ItemNotFoundException(String.format("Item id %s not found", itemId));
+        });
     }
 
     public Item getItem(Long itemId, Long userId) {
         log.info("Looking for item id {} by user {}", itemId, userId);
+        if (knownIds.isUnknownItem(itemId)) {
+            log.info("Item id {} not found ", itemId);
+            throw new ItemNotFoundException(String.format("Item id %s not found", itemId));
+        }
+        long generation = knownIds.itemGeneration();
         Item item = itemRepository.findById(itemId).orElseThrow(() -> {
             log.info("Item id {} not found ", itemId);
+            knownIds.itemMissing(itemId, generation);
             return new ItemNotFoundException(String.format("Item id %s not found", itemId));
         });
         log.info("Item found: {}", item);
@@ -106,21 +175,22 @@ public class ItemService {
         return item;
     }
 
-    public List<Item> searchItem(String text, Long userId, int from, int size) {
+    public Slice<Item> searchItem(String text, Long userId, int from, int size) {
         if (text == null || text.isBlank()) {
-            return new ArrayList<>();
+            return new SliceImpl<>(new ArrayList<>());
         }
         log.info("Looking for item by key word: \"{}\". User id: {}", text, userId);
         final PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
-        Page<Item> items = itemRepository
-                .findItemByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndIsAvailableIsTrue(text, text, page);
+        String escapedText = escapeLikePattern(text.toUpperCase());
+        Slice<Item> items = itemRepository.searchAvailableItems("%" + escapedText + "%", escapedText + "%", page);
 
         setBookingsToItems(items.getContent());
 
-        log.info("Number of items found: {}", items);
-        return items.getContent();
+        log.info("Number of items found: {}", items.getNumberOfElements());
+        return items;
     }
 
+    @Transactional
     public Item deleteItem(Long itemId, Long userId) {
         log.info("Deleting item id {} by user id {}", itemId, userId);
         Item savedItem = itemRepository.findById(itemId).orElseThrow(() -> {
@@ -132,13 +202,19 @@ public class ItemService {
             log.info("Item {} does not belong to user {}.", itemId, userId);
             throw new ItemNotFoundException(String.format("Item id %s not found", itemId));
         }
+        // The deleted item is returned with its comments, which the delete takes along.
+        Hibernate.initialize(savedItem.getComments());
         itemRepository.deleteById(itemId);
+        invalidationBus.itemChanged(itemId);
+        requestChanged(savedItem);
         return savedItem;
     }
 
+    @Transactional
     public Comment addComment(Comment comment) {
         log.info("Adding comment {}.", comment);
-        Item savedItem = itemRepository.findById(comment.getItem().getId()).orElseThrow(() -> {
+        // The comment is attached to both, so they come from the repositories, not the shared EntityCache copies.
+        Item savedItem = itemRepository.findLockedById(comment.getItem().getId()).orElseThrow(() -> {
             log.info("Item id {} not found ", comment.getItem().getId());
             return new ItemNotFoundException(String.format("Item id %s not found", comment.getItem().getId()));
         });
@@ -159,16 +235,44 @@ public class ItemService {
                     String.format("User id %s did not book item and cannot leave comment", user.getId()));
         }
         comment.setCreated(Timestamp.valueOf(LocalDateTime.now()));
+        savedItem.setVersion(savedItem.getVersion() + 1);
         Comment savedComment = commentRepository.save(comment);
+        invalidationBus.itemChanged(savedItem.getId());
         log.info("Comment saved: {}", savedComment);
         return savedComment;
     }
 
+    /**
+     * A request lists the items answering it, so adding, changing or removing one of them changes the request.
+     */
+    private void requestChanged(Item item) {
+        if (item.getRequest() != null) {
+            requestRepository.findLockedById(item.getRequest().getId())
+                    .ifPresent(request -> request.setVersion(request.getVersion() + 1));
+            invalidationBus.requestChanged(item.getRequest().getId());
+        }
+    }
+
+    private String escapeLikePattern(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
     private List<Item> setBookingsToItems(List<Item> items) {
+        if (items.isEmpty()) {
+            return items;
+        }
         Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        Map<Long, Booking> lastBookings = bookingRepository.findLastBookings(itemIds, now).stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), Function.identity()));
+        Map<Long, Booking> nextBookings = bookingRepository.findNextBookings(itemIds, now).stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), Function.identity()));
+        log.info("Last bookings found: {}, next bookings found: {}", lastBookings.size(), nextBookings.size());
         for (Item i : items) {
-            i.setLastBooking(getLastBooking(i.getId(), now));
-            i.setNextBooking(getNextBooking(i.getId(), now));
+            i.setLastBooking(lastBookings.get(i.getId()));
+            i.setNextBooking(nextBookings.get(i.getId()));
             log.info("Item {} last booking {}, next booking {}.", i, i.getLastBooking(), i.getNextBooking());
         }
         return items;
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@EqualsAndHashCode
+public class Cursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime position;
+    private final Long id;
+
+    private Cursor(LocalDateTime position, Long id) {
+        this.position = position;
+        this.id = id;
+    }
+
+    public static Cursor of(Long id) {
+        return new Cursor(null, id);
+    }
+
+    public static Cursor of(LocalDateTime position, Long id) {
+        return new Cursor(position, id);
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = value.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                return of(Long.valueOf(value));
+            }
+            return of(LocalDateTime.parse(value.substring(0, separatorIndex)),
+                    Long.valueOf(value.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException(String.format("Invalid cursor: %s", token));
+        }
+    }
+
+    public static Cursor decodeWithPosition(String token) {
+        Cursor cursor = decode(token);
+        if (cursor.getPosition() == null) {
+            throw new ValidationException(String.format("Invalid cursor: %s", token));
+        }
+        return cursor;
+    }
+
+    public String encode() {
+        String value = position == null ? String.valueOf(id) : position + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Timestamp getTimestamp() {
+        return position == null ? null : Timestamp.valueOf(position);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.data.domain.Slice;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.function.Function;
+
+public class SliceHeaders {
+    public static final String HAS_NEXT_HEADER = "X-Has-Next";
+
+    private SliceHeaders() {
+    }
+
+    public static void write(HttpServletResponse response, Slice<?> slice) {
+        response.setHeader(HAS_NEXT_HEADER, String.valueOf(slice.hasNext()));
+    }
+
+    public static <T> void write(HttpServletResponse response, Slice<T> slice, Function<T, Cursor> cursorOf) {
+        write(response, slice);
+        List<T> content = slice.getContent();
+        if (slice.hasNext() && !content.isEmpty()) {
+            response.setHeader(Cursor.NEXT_CURSOR_HEADER, cursorOf.apply(content.get(content.size() - 1)).encode());
+        }
+    }
+}
@@ -2,12 +2,18 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.etag.ETags;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.SliceHeaders;
 import ru.practicum.shareit.request.dto.ItemRequestRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.service.RequestService;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @RestController
@@ -35,32 +41,50 @@ public class RequestController {
 
     @GetMapping("/{requestId}")
     public ItemRequestResponseDto findRequest(@PathVariable Long requestId,
-                                              @RequestHeader(value = "X-Sharer-User-Id") Long userId) {
+                                              @RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                              HttpServletRequest request,
+                                              HttpServletResponse response) {
         log.info("Looking for request id {} by user {}", requestId, userId);
+        String etag = ETags.tag(requestService.findRequestVersion(requestId, userId));
+        if (ETags.notModified(request, response, etag)) {
+            log.info("Request id {} not modified for user {}", requestId, userId);
+            return null;
+        }
         ItemRequestResponseDto itemRequestRequestDto = requestService.findRequest(requestId, userId);
         log.info("Request found: {}", itemRequestRequestDto);
+        ETags.write(response, etag);
         return itemRequestRequestDto;
     }
 
     @GetMapping
     public List<ItemRequestResponseDto> getOwnRequests(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
                                                        @RequestParam int from,
-                                                       @RequestParam int size) {
+                                                       @RequestParam int size,
+                                                       HttpServletResponse response) {
 
         log.info("Looking for requests from user id {}. Paging from {}, size {}.", userId, from, size);
-        List<ItemRequestResponseDto> requests = requestService.findUserRequest(userId, from, size);
-        log.info("Requests found: {}.", requests);
-        return requests;
+        Slice<ItemRequestResponseDto> requests = requestService.findUserRequest(userId, from, size);
+        SliceHeaders.write(response, requests);
+        log.info("Requests found: {}.", requests.getContent());
+        return requests.getContent();
     }
 
     @GetMapping("/all")
     public List<ItemRequestResponseDto> getRequests(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
                                                     @RequestParam int from,
-                                                    @RequestParam int size) {
+                                                    @RequestParam int size,
+                                                    @RequestParam(required = false) String after,
+                                                    HttpServletResponse response) {
 
         log.info("Looking for all requests from {}, size {}", from, size);
-        List<ItemRequestResponseDto> requests = requestService.findAllRequests(userId, from, size);
-        log.info("Requests found: {}", requests);
-        return requests;
+        Slice<ItemRequestResponseDto> requests;
+        if (after == null) {
+            requests = requestService.findAllRequests(userId, from, size);
+        } else {
+            requests = requestService.findAllRequestsAfter(userId, after, size);
+        }
+        SliceHeaders.write(response, requests, request -> Cursor.of(request.getCreated(), request.getId()));
+        log.info("Requests found: {}", requests.getContent());
+        return requests.getContent();
     }
 }
\ No newline at end of file
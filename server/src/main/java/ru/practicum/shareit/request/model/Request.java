@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -18,6 +20,8 @@ import java.util.List;
 @Builder
 @Entity
 @Table(name = "item_requests")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "requests")
 public class Request {
 
     @Id
@@ -37,5 +41,12 @@ public class Request {
 
     @OneToMany
     @JoinColumn(name = "request_id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "request-items")
     private List<Item> items;
+
+    /**
+     * Moves on whenever an item answering the request is added, changed or removed; the ETag of
+     * GET /requests/{id}.
+     */
+    private long version;
 }
\ No newline at end of file
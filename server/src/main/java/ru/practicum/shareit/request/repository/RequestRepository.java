@@ -1,14 +1,37 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.request.model.Request;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+
 public interface RequestRepository extends JpaRepository<Request, Long> {
-    Page<Request> findAllByRequesterId(Long userId, Pageable page);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Request> findLockedById(Long requestId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Request r where r.id in (select i.request.id from Item i where i.ownerId = ?1) " +
+            "order by r.id")
+    List<Request> findLockedByItemOwner(Long ownerId);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    Slice<Request> findAllByRequesterId(Long userId, Pageable page);
+
+    @Query(value = "select * from item_requests as r where requester_id <> ?1 order by r.created, r.request_id",
+            nativeQuery = true)
+    Slice<Request> findAllOrderByCreated(Long userId, Pageable page);
 
-    @Query(value = "select * from item_requests as r where requester_id <> ?1 order by r.created", nativeQuery = true)
-    Page<Request> findAllOrderByCreated(Long userId, Pageable page);
+    @Query(value = "select * from item_requests as r where requester_id <> ?1 and " +
+            "(r.created > ?2 or (r.created = ?2 and r.request_id > ?3)) " +
+            "order by r.created, r.request_id limit ?4", nativeQuery = true)
+    List<Request> findAllAfterOrderByCreated(Long userId, Timestamp created, Long requestId, int limit);
 }
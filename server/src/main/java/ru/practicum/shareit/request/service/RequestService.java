@@ -2,9 +2,13 @@ package ru.practicum.shareit.request.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.cache.InvalidationBus;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.exceptions.RequestNotFoundException;
@@ -16,6 +20,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.request.mapper.RequestMapper.mapFromDto;
 import static ru.practicum.shareit.request.mapper.RequestMapper.mapToDto;
@@ -25,19 +30,30 @@ import static ru.practicum.shareit.request.mapper.RequestMapper.mapToDto;
 public class RequestService {
     private final RequestRepository requestRepository;
     private final UserRepository userRepository;
+    private final EntityCache entityCache;
+    private final InvalidationBus invalidationBus;
 
     @Autowired
-    public RequestService(RequestRepository requestRepository, UserRepository userRepository) {
+    public RequestService(RequestRepository requestRepository, UserRepository userRepository,
+                          EntityCache entityCache, InvalidationBus invalidationBus) {
         this.requestRepository = requestRepository;
         this.userRepository = userRepository;
+        this.entityCache = entityCache;
+        this.invalidationBus = invalidationBus;
     }
 
     public ItemRequestResponseDto addRequest(ItemRequestRequestDto itemRequestRequestDto) {
         log.info("Adding request: {}", itemRequestRequestDto);
-        User requester = doesUserExist(itemRequestRequestDto.getRequesterId());
+        // Attached to the new request, so not the shared EntityCache copy.
+        Long requesterId = itemRequestRequestDto.getRequesterId();
+        User requester = userRepository.findById(requesterId).orElseThrow(() -> {
+            log.error("User id {} not found.", requesterId);
+            return new UserNotFoundException(String.format("User id %s not found.", requesterId));
+        });
         Request request = mapFromDto(itemRequestRequestDto);
         request.setRequester(requester);
         Request savedRequest = requestRepository.save(request);
+        invalidationBus.requestChanged(savedRequest.getId());
         log.info("Request saved: {}", savedRequest);
         return mapToDto(savedRequest);
     }
@@ -53,23 +69,47 @@ public class RequestService {
         return mapToDto(request);
     }
 
-    public List<ItemRequestResponseDto> findUserRequest(Long userId, int from, int size) {
+    /**
+     * The version behind the request's ETag. Fails like {@link #findRequest} when the user or the request is gone.
+     */
+    public long findRequestVersion(Long requestId, Long userId) {
+        doesUserExist(userId);
+        return requestRepository.findById(requestId).map(Request::getVersion).orElseThrow(() -> {
+            log.error("Request id {} not found.", requestId);
+            return new RequestNotFoundException(String.format("Request id %s not found.", requestId));
+        });
+    }
+
+    public Slice<ItemRequestResponseDto> findUserRequest(Long userId, int from, int size) {
         log.info("Looking for requests from user id {}. Paging from {}, size {}.", userId, from, size);
         doesUserExist(userId);
         final PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
-        Page<Request> requests = requestRepository.findAllByRequesterId(userId, page);
-        return requests.map(RequestMapper::mapToDto).getContent();
+        Slice<Request> requests = requestRepository.findAllByRequesterId(userId, page);
+        return requests.map(RequestMapper::mapToDto);
     }
 
-    public List<ItemRequestResponseDto> findAllRequests(Long userId, int from, int size) {
+    public Slice<ItemRequestResponseDto> findAllRequests(Long userId, int from, int size) {
         log.info("Looking for requests/ Paging from {}, size {}.", from, size);
         final PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
-        Page<Request> requests = requestRepository.findAllOrderByCreated(userId, page);
-        return requests.map(RequestMapper::mapToDto).getContent();
+        Slice<Request> requests = requestRepository.findAllOrderByCreated(userId, page);
+        return requests.map(RequestMapper::mapToDto);
+    }
+
+    public Slice<ItemRequestResponseDto> findAllRequestsAfter(Long userId, String after, int size) {
+        log.info("Looking for requests after cursor {}, size {}.", after, size);
+        Cursor cursor = Cursor.decodeWithPosition(after);
+        List<Request> requests = requestRepository.findAllAfterOrderByCreated(userId, cursor.getTimestamp(),
+                cursor.getId(), size + 1);
+        boolean hasNext = requests.size() > size;
+        List<ItemRequestResponseDto> content = requests.stream()
+                .limit(size)
+                .map(RequestMapper::mapToDto)
+                .collect(Collectors.toList());
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
     }
 
     private User doesUserExist(Long id) {
-        return userRepository.findById(id).orElseThrow(() -> {
+        return entityCache.findUser(id, userRepository::findById).orElseThrow(() -> {
             log.error("User id {} not found.", id);
             return new UserNotFoundException(String.format("User id %s not found.", id));
         });
@@ -3,12 +3,15 @@ package ru.practicum.shareit.user.controller;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.etag.ETags;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 import ru.practicum.shareit.user.dto.UserResponseDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -49,10 +52,17 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserResponseDto getUser(@PathVariable Long userId) {
+    public UserResponseDto getUser(@PathVariable Long userId,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) {
         log.info("Looking for user id {}", userId);
         User user = userService.get(userId);
         log.info("User found: {}", user);
+        if (ETags.notModified(request, response, ETags.tag(user.getVersion()))) {
+            log.info("User id {} not modified", userId);
+            return null;
+        }
+        ETags.write(response, ETags.tag(user.getVersion()));
         return mapToDto(user);
     }
 
@@ -4,6 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import javax.validation.constraints.Email;
@@ -14,6 +17,9 @@ import javax.validation.constraints.Email;
 @Builder
 @Entity
 @Table(name = "shareit_users")
+@BatchSize(size = 100)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,4 +31,9 @@ public class User {
     private String email;
 
     private String name;
+
+    /**
+     * Moves on with every change to the user; the ETag of GET /users/{id}.
+     */
+    private long version;
 }
@@ -3,6 +3,14 @@ package ru.practicum.shareit.user.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.cache.InvalidationBus;
+import ru.practicum.shareit.cache.KnownIds;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.exceptions.EmailRegisteredException;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
@@ -14,33 +22,54 @@ import java.util.List;
 @Slf4j
 public class UserService {
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final RequestRepository requestRepository;
+    private final EntityCache entityCache;
+    private final InvalidationBus invalidationBus;
+    private final KnownIds knownIds;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, ItemRepository itemRepository,
+                       RequestRepository requestRepository, EntityCache entityCache, InvalidationBus invalidationBus,
+                       KnownIds knownIds) {
         this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.requestRepository = requestRepository;
+        this.entityCache = entityCache;
+        this.invalidationBus = invalidationBus;
+        this.knownIds = knownIds;
     }
 
     public User add(User user) {
         log.info("Saving user: {}.", user);
         User savedUser = userRepository.save(user);
+        invalidationBus.userCreated(user.getId());
         log.info("User saved: {}.", savedUser);
         return savedUser;
     }
 
+    @Transactional
     public User update(User user) {
         log.info("Updating user with: {}.", user);
-        User savedUser = userRepository.findById(user.getId()).orElseThrow(() -> {
+        // Items show their comments' author names. They are locked before the user, as addComment does.
+        List<Item> commentedItems = user.getName() == null ? List.of()
+                : itemRepository.findLockedByCommentAuthor(user.getId());
+        User savedUser = userRepository.findLockedById(user.getId()).orElseThrow(() -> {
             log.info("User with id {} not found.", user.getId());
             return new UserNotFoundException(String.format("User with id %s not found", user.getId()));
         });
 
         if (user.getName() != null && !savedUser.getName().equals(user.getName())) {
             savedUser.setName(user.getName());
+            for (Item item : commentedItems) {
+                item.setVersion(item.getVersion() + 1);
+                invalidationBus.itemChanged(item.getId());
+            }
         }
 
         if (user.getEmail() != null) {
             if (savedUser.getEmail().equals(user.getEmail())) {
-                return userRepository.save(savedUser);
+                return saveUpdated(savedUser);
             } else if (userRepository.findByEmailIgnoreCase(user.getEmail()) != null) {
                 throw new EmailRegisteredException("User with such email already registered");
             } else if (!savedUser.getEmail().equals(user.getEmail())) {
@@ -48,13 +77,19 @@ public class UserService {
                 log.info("Email updated.");
             }
         }
-        return userRepository.save(savedUser);
+        return saveUpdated(savedUser);
     }
 
     public User get(Long userId) {
         log.info("Looking for user id {}", userId);
-        User user = userRepository.findById(userId).orElseThrow(() -> {
+        if (knownIds.isUnknownUser(userId)) {
+            log.info("User id {} not found", userId);
+            throw new UserNotFoundException(String.format("User id %s not found", userId));
+        }
+        long generation = knownIds.userGeneration();
+        User user = entityCache.findUser(userId, userRepository::findById).orElseThrow(() -> {
             log.info("User id {} not found", userId);
+            knownIds.userMissing(userId, generation);
             return new UserNotFoundException(String.format("User id %s not found", userId));
         });
         log.info("User found: {}", user);
@@ -68,13 +103,29 @@ public class UserService {
         return users;
     }
 
+    @Transactional
     public User delete(Long userId) {
         log.info("Deleting user id {}", userId);
+        // The database cascades the delete to the user's comments, items and requests. Items of other users lose
+        // comments and requests of other users lose items, so their versions move on; the rest are deleted anyway.
+        // The user-deleted broadcast already evicts every cached item and request.
+        List<Item> commentedItems = itemRepository.findLockedByCommentAuthor(userId);
+        List<Request> answeredRequests = requestRepository.findLockedByItemOwner(userId);
         User user = userRepository.findById(userId).orElseThrow(() -> {
             log.info("User id {} not found", userId);
             return new UserNotFoundException(String.format("User id %s not found", userId));
         });
+        commentedItems.forEach(item -> item.setVersion(item.getVersion() + 1));
+        answeredRequests.forEach(request -> request.setVersion(request.getVersion() + 1));
         userRepository.deleteById(userId);
+        invalidationBus.userDeleted(userId);
         return user;
     }
+
+    private User saveUpdated(User user) {
+        user.setVersion(user.getVersion() + 1);
+        User savedUser = userRepository.save(user);
+        invalidationBus.userChanged(user.getId());
+        return savedUser;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+create extension if not exists pg_trgm;
+
+drop index if exists idx_items_name_trgm;
+
+drop index if exists idx_items_description_trgm;
+
+create index if not exists idx_items_available_name_trgm on items using gin (upper(name) gin_trgm_ops)
+    where available = true;
+
+create index if not exists idx_items_available_description_trgm on items using gin (upper(description) gin_trgm_ops)
+    where available = true;
@@ -3,6 +3,7 @@ create table if not exists shareit_users
     user_id bigint GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     email   VARCHAR(255)                            NOT NULL,
     name    VARCHAR(255)                            NOT NULL,
+    version BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (user_id),
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
@@ -13,6 +14,7 @@ create table if not exists item_requests
     description  VARCHAR(255)                            NOT NULL,
     created      TIMESTAMP WITHOUT TIME ZONE,
     requester_id BIGINT                                  NOT NULL,
+    version      BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pr_requests PRIMARY KEY (request_id),
     CONSTRAINT fk_requester FOREIGN KEY (requester_id) REFERENCES shareit_users (user_id) ON delete CASCADE
 );
@@ -25,6 +27,7 @@ create table if not exists items
     available   BOOLEAN                                 NOT NULL,
     owner_id    BIGINT                                  NOT NULL,
     request_id  BIGINT,
+    version     BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_item PRIMARY KEY (item_id),
     CONSTRAINT fk_owner FOREIGN KEY (owner_id) REFERENCES shareit_users (user_id) ON delete CASCADE,
     CONSTRAINT fk_request_item FOREIGN KEY (request_id) REFERENCES item_requests (request_id) ON delete cascade
@@ -32,12 +35,13 @@ create table if not exists items
 
 create table if not exists bookings
 (
-    booking_id bigint GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-    item_id    BIGINT                                  NOT NULL,
-    booker_id  BIGINT                                  NOT NULL,
-    start_date TIMESTAMP WITHOUT TIME ZONE,
-    end_date   TIMESTAMP WITHOUT TIME ZONE,
-    status     VARCHAR(50),
+    booking_id    bigint GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    item_id       BIGINT                                  NOT NULL,
+    item_owner_id BIGINT                                  NOT NULL,
+    booker_id     BIGINT                                  NOT NULL,
+    start_date    TIMESTAMP WITHOUT TIME ZONE,
+    end_date      TIMESTAMP WITHOUT TIME ZONE,
+    status        VARCHAR(50),
     CONSTRAINT pk_booking PRIMARY KEY (booking_id),
     CONSTRAINT fk_booking_items FOREIGN KEY (item_id) REFERENCES items (item_id) ON delete CASCADE,
     CONSTRAINT fk_booker FOREIGN KEY (booker_id) REFERENCES shareit_users (user_id) ON delete CASCADE
@@ -54,3 +58,32 @@ create table if not exists comments
     CONSTRAINT fk_comment_items FOREIGN KEY (item_id) REFERENCES items (item_id) ON delete CASCADE,
     CONSTRAINT fk_user FOREIGN KEY (author_id) REFERENCES shareit_users (user_id) ON delete CASCADE
 );
+
+-- bookings created before item_owner_id existed
+alter table bookings add column if not exists item_owner_id BIGINT;
+update bookings b
+set item_owner_id = (select i.owner_id from items i where i.item_id = b.item_id)
+where b.item_owner_id is null;
+alter table bookings alter column item_owner_id set not null;
+
+-- tables created before the ETag versions existed
+alter table shareit_users add column if not exists version BIGINT DEFAULT 0 NOT NULL;
+alter table item_requests add column if not exists version BIGINT DEFAULT 0 NOT NULL;
+alter table items add column if not exists version BIGINT DEFAULT 0 NOT NULL;
+
+-- bookings by booker: ALL, CURRENT, PAST, FUTURE and cursor pages
+create index if not exists idx_bookings_booker_start on bookings (booker_id, start_date desc, booking_id desc);
+-- bookings by booker: WAITING, REJECTED
+create index if not exists idx_bookings_booker_status_start on bookings (booker_id, status, start_date desc, booking_id desc);
+-- bookings by item owner: ALL, CURRENT, PAST, FUTURE and cursor pages
+create index if not exists idx_bookings_owner_start on bookings (item_owner_id, start_date desc, booking_id desc);
+-- bookings by item owner: WAITING, REJECTED
+create index if not exists idx_bookings_owner_status_start on bookings (item_owner_id, status, start_date desc, booking_id desc);
+-- last and next booking of an item
+create index if not exists idx_bookings_item_start on bookings (item_id, start_date desc, booking_id desc);
+-- overlap check on booking creation
+create index if not exists idx_bookings_item_dates on bookings (item_id, start_date, end_date);
+
+create index if not exists idx_items_owner on items (owner_id, item_id);
+
+create index if not exists idx_item_requests_created on item_requests (created, request_id);
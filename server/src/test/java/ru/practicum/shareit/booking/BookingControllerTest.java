@@ -1,15 +1,19 @@
 package ru.practicum.shareit.booking;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.WireFormatConfig;
 import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
@@ -17,6 +21,8 @@ import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exceptions.handler.ErrorHandler;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.SliceHeaders;
 import ru.practicum.shareit.user.dto.UserResponseDto;
 
 import java.time.LocalDateTime;
@@ -28,11 +34,13 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 @WebMvcTest
-@ContextConfiguration(classes = {BookingController.class, ErrorHandler.class})
+@ContextConfiguration(classes = {BookingController.class, ErrorHandler.class, WireFormatConfig.class})
 public class BookingControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
@@ -117,7 +125,7 @@ public class BookingControllerTest {
     @SneakyThrows
     @Test
     public void getUserBookings_Normal() {
-        when(bookingService.getUserBookings(userId, "ALL", from, size)).thenReturn(bookings);
+        when(bookingService.getUserBookings(userId, "ALL", from, size)).thenReturn(new SliceImpl<>(bookings));
 
         String result = mockMvc.perform(get("/bookings")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -133,10 +141,55 @@ public class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(bookings), result);
     }
 
+    @SneakyThrows
+    @Test
+    public void getUserBookings_Smile() {
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+        when(bookingService.getUserBookings(userId, "ALL", from, size)).thenReturn(new SliceImpl<>(bookings));
+
+        byte[] result = mockMvc.perform(get("/bookings")
+                        .accept(smile)
+                        .param("state", "ALL")
+                        .param("from", from.toString())
+                        .param("size", size.toString())
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(smile))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(bookings)),
+                new ObjectMapper(new SmileFactory()).readTree(result));
+    }
+
+    @SneakyThrows
+    @Test
+    public void getUserBookings_AfterCursor() {
+        String after = Cursor.of(start.plusDays(1), 5L).encode();
+        when(bookingService.getUserBookingsAfter(userId, "ALL", after, 1)).thenReturn(new SliceImpl<>(bookings, PageRequest.of(0, 1), true));
+
+        String nextCursor = mockMvc.perform(get("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("state", "ALL")
+                        .param("from", from.toString())
+                        .param("size", "1")
+                        .param("after", after)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SliceHeaders.HAS_NEXT_HEADER, "true"))
+                .andReturn()
+                .getResponse()
+                .getHeader(Cursor.NEXT_CURSOR_HEADER);
+
+        BookingResponseDto last = bookings.get(bookings.size() - 1);
+        assertEquals(Cursor.of(last.getStart(), last.getId()), Cursor.decode(nextCursor));
+    }
+
     @SneakyThrows
     @Test
     public void getOwnerBooking_Normal() {
-        when(bookingService.getOwnerBooking(userId, "ALL", from, size)).thenReturn(bookings);
+        when(bookingService.getOwnerBooking(userId, "ALL", from, size)).thenReturn(new SliceImpl<>(bookings));
 
         String result = mockMvc.perform(get("/bookings/owner")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -152,6 +205,23 @@ public class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(bookings), result);
     }
 
+    @SneakyThrows
+    @Test
+    public void getOwnerBooking_CurrentNoCursor() {
+        when(bookingService.getOwnerBooking(userId, "CURRENT", from, 1))
+                .thenReturn(new SliceImpl<>(bookings, PageRequest.of(0, 1), true));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("state", "CURRENT")
+                        .param("from", from.toString())
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SliceHeaders.HAS_NEXT_HEADER, "true"))
+                .andExpect(header().doesNotExist(Cursor.NEXT_CURSOR_HEADER));
+    }
+
     @SneakyThrows
     @Test
     public void updateBooking_Normal() {
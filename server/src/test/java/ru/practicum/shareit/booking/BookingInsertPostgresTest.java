@@ -0,0 +1,188 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingInsert;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs {@link BookingRepository#insertWaiting} on PostgreSQL, where it sends the lock, the checked insert and
+ * the comment query as one multi-statement round trip; the H2 tests only cover the stepwise fallback.
+ * Enabled by the postgres-tests Maven profile, which starts a Testcontainers database unless
+ * shareit.test.postgres.url points to an existing one.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfSystemProperty(named = "shareit.test.postgres", matches = "true")
+@TestPropertySource(properties = {
+        "spring.datasource.driverClassName=",
+        "spring.datasource.url=${shareit.test.postgres.url:jdbc:tc:postgresql:15-alpine:///shareit}",
+        "spring.datasource.username=${shareit.test.postgres.username:test}",
+        "spring.datasource.password=${shareit.test.postgres.password:test}",
+        "spring.sql.init.platform=postgresql",
+        "shareit.booking.insert-mode=fused"
+})
+class BookingInsertPostgresTest {
+    private static final int CONCURRENT_BOOKINGS = 8;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Test
+    void testInsertWaitingReturnsResponseColumns() {
+        var owner = createUser("Bob Builder", "bob@builder.com");
+        var booker = createUser("Mr. Smith", "find.neo@matrix.com");
+        var drill = createItem("Drill", "Cordless drill", true, owner);
+        entityManager.persist(Comment.builder().text("Works fine").author(booker).item(drill)
+                .created(Timestamp.valueOf(now)).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        var insert = bookingRepository.insertWaiting(newBooking(drill.getId(), booker.getId(), now.plusDays(1), now.plusDays(2)));
+
+        Assertions.assertTrue(insert.isCreated());
+        var booking = insert.getBooking();
+        Assertions.assertNotNull(booking.getId());
+        Assertions.assertEquals(owner.getId(), booking.getItemOwnerId());
+        Assertions.assertEquals("Drill", booking.getItem().getName());
+        Assertions.assertEquals("Cordless drill", booking.getItem().getDescription());
+        Assertions.assertTrue(booking.getItem().getIsAvailable());
+        Assertions.assertEquals(owner.getId(), booking.getItem().getOwnerId());
+        Assertions.assertNull(booking.getItem().getRequest());
+        Assertions.assertEquals(1, booking.getItem().getComments().size());
+        Assertions.assertEquals("Works fine", booking.getItem().getComments().get(0).getText());
+        Assertions.assertEquals("Mr. Smith", booking.getItem().getComments().get(0).getAuthor().getName());
+        Assertions.assertEquals("Mr. Smith", booking.getBooker().getName());
+        Assertions.assertEquals("find.neo@matrix.com", booking.getBooker().getEmail());
+
+        var saved = bookingRepository.findById(booking.getId()).orElseThrow();
+        Assertions.assertEquals(Status.WAITING, saved.getStatus());
+        Assertions.assertEquals(owner.getId(), saved.getItemOwnerId());
+        Assertions.assertEquals(Timestamp.valueOf(now.plusDays(1)), saved.getStartDate());
+    }
+
+    @Test
+    void testInsertWaitingRejections() {
+        var owner = createUser("Bob Builder", "bob@builder.com");
+        var booker = createUser("Mr. Smith", "find.neo@matrix.com");
+        var drill = createItem("Drill", "Cordless drill", true, owner);
+        var pencil = createItem("Pencil", "Basic drawing tool", false, owner);
+        Assertions.assertTrue(bookingRepository.insertWaiting(
+                newBooking(drill.getId(), booker.getId(), now.plusDays(1), now.plusDays(2))).isCreated());
+
+        Assertions.assertEquals(BookingInsert.Rejection.ITEM_NOT_FOUND, bookingRepository.insertWaiting(
+                newBooking(-1L, booker.getId(), now.plusDays(5), now.plusDays(6))).getRejection());
+        Assertions.assertEquals(BookingInsert.Rejection.ITEM_NOT_AVAILABLE, bookingRepository.insertWaiting(
+                newBooking(pencil.getId(), booker.getId(), now.plusDays(5), now.plusDays(6))).getRejection());
+        Assertions.assertEquals(BookingInsert.Rejection.OWN_ITEM, bookingRepository.insertWaiting(
+                newBooking(drill.getId(), owner.getId(), now.plusDays(5), now.plusDays(6))).getRejection());
+        Assertions.assertEquals(BookingInsert.Rejection.BOOKER_NOT_FOUND, bookingRepository.insertWaiting(
+                newBooking(drill.getId(), -1L, now.plusDays(5), now.plusDays(6))).getRejection());
+        Assertions.assertEquals(BookingInsert.Rejection.OVERLAP, bookingRepository.insertWaiting(
+                newBooking(drill.getId(), booker.getId(), now.plusDays(2), now.plusDays(3))).getRejection());
+        Assertions.assertEquals(BookingInsert.Rejection.OVERLAP, bookingRepository.insertWaiting(
+                newBooking(drill.getId(), booker.getId(), now, now.plusDays(1))).getRejection());
+        Assertions.assertTrue(bookingRepository.insertWaiting(
+                newBooking(drill.getId(), booker.getId(), now.plusDays(2).plusSeconds(1), now.plusDays(3))).isCreated());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testConcurrentInsertWaitingCreatesOneBooking() throws Exception {
+        var transaction = new TransactionTemplate(transactionManager);
+        var owner = transaction.execute(status -> createUser("Bob Builder", "bob@builder.com"));
+        var booker = transaction.execute(status -> createUser("Mr. Smith", "find.neo@matrix.com"));
+        var drill = transaction.execute(status -> createItem("Drill", "Cordless drill", true, owner));
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_BOOKINGS);
+        try {
+            var start = new CountDownLatch(1);
+            List<Future<BookingInsert>> inserts = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_BOOKINGS; i++) {
+                var from = now.plusDays(1).plusHours(i);
+                Callable<BookingInsert> insert = () -> {
+                    start.await();
+                    return transaction.execute(status ->
+                            bookingRepository.insertWaiting(newBooking(drill.getId(), booker.getId(), from, from.plusDays(1))));
+                };
+                inserts.add(executor.submit(insert));
+            }
+            start.countDown();
+
+            int created = 0;
+            for (Future<BookingInsert> insert : inserts) {
+                var result = insert.get();
+                if (result.isCreated()) {
+                    created++;
+                } else {
+                    Assertions.assertEquals(BookingInsert.Rejection.OVERLAP, result.getRejection());
+                }
+            }
+            Assertions.assertEquals(1, created);
+            Assertions.assertEquals(1, jdbcTemplate.queryForObject(
+                    "select count(*) from bookings where item_id = ?", Integer.class, drill.getId()));
+        } finally {
+            executor.shutdownNow();
+            jdbcTemplate.update("delete from bookings where item_id = ?", drill.getId());
+            jdbcTemplate.update("delete from items where item_id = ?", drill.getId());
+            jdbcTemplate.update("delete from shareit_users where user_id in (?, ?)", owner.getId(), booker.getId());
+        }
+    }
+
+    private User createUser(String name, String email) {
+        var user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return entityManager.persist(user);
+    }
+
+    private Item createItem(String name, String description, boolean available, User owner) {
+        var item = new Item();
+        item.setName(name);
+        item.setDescription(description);
+        item.setIsAvailable(available);
+        item.setOwnerId(owner.getId());
+        return entityManager.persist(item);
+    }
+
+    private Booking newBooking(Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end) {
+        return BookingMapper.mapFromDto(BookingRequestDto.builder().itemId(itemId).start(start).end(end).build(),
+                bookerId, Status.WAITING);
+    }
+}
@@ -0,0 +1,204 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.pagination.Cursor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.*;
+
+/**
+ * Fails when a query BookingRepository sends for a booking list has no index and falls back to a full scan
+ * of bookings. Each case calls the repository, records the statements it prepares and explains them with the
+ * values they were bound to. Runs on H2 by default; on PostgreSQL sequential scans are disabled for the
+ * transaction, so any remaining one means no index applies.
+ */
+@DataJpaTest
+@Import(BookingQueryPlanTest.RecordingConfig.class)
+class BookingQueryPlanTest {
+    private static final Timestamp NOW = Timestamp.valueOf("2030-01-01 12:00:00");
+    private static final Pageable PAGE = PageRequest.of(0, 10);
+    private static final Pageable KEYSET_PAGE = PageRequest.of(0, 10,
+            Sort.by(Sort.Order.desc("startDate"), Sort.Order.desc("id")));
+    private static final Cursor CURSOR = Cursor.of(LocalDateTime.of(2030, 1, 1, 12, 0), 100L);
+    private static final List<RecordedStatement> RECORDED = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        if (isPostgres()) {
+            jdbcTemplate.execute("set local enable_seqscan = off");
+        }
+    }
+
+    static Stream<Arguments> bookingQueries() {
+        return Stream.of(
+                query("booker ALL", bookings -> bookings.findByBookerIdOrderByStartDateDescIdDesc(1L, PAGE)),
+                query("booker CURRENT", bookings -> bookings
+                        .findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDescIdDesc(1L, NOW, NOW, PAGE)),
+                query("booker PAST", bookings -> bookings.findByBookerIdAndEndDateBeforeOrderByStartDateDescIdDesc(1L, NOW, PAGE)),
+                query("booker FUTURE", bookings -> bookings.findByBookerIdAndStartDateAfterOrderByStartDateDescIdDesc(1L, NOW, PAGE)),
+                query("booker status", bookings -> bookings
+                        .findByBookerIdAndStatusEqualsOrderByStartDateDescIdDesc(1L, Status.WAITING, PAGE)),
+                query("owner ALL", bookings -> bookings.findByItemOwnerIdOrderByStartDateDescIdDesc(1L, PAGE)),
+                query("owner CURRENT", bookings -> bookings
+                        .findByItemOwnerIdAndStartDateBeforeAndEndDateAfterOrderById(1L, NOW, NOW, PAGE)),
+                query("owner PAST", bookings -> bookings.findByItemOwnerIdAndEndDateBeforeOrderByStartDateDescIdDesc(1L, NOW, PAGE)),
+                query("owner FUTURE", bookings -> bookings.findByItemOwnerIdAndStartDateAfterOrderByStartDateDescIdDesc(1L, NOW, PAGE)),
+                query("owner status", bookings -> bookings
+                        .findByItemOwnerIdAndStatusEqualsOrderByStartDateDescIdDesc(1L, Status.REJECTED, PAGE)),
+                query("booker after cursor", bookings -> bookings.findSlice(Specification.where(hasBooker(1L))
+                        .and(isCurrent(NOW)).and(isAfter(CURSOR)), KEYSET_PAGE)),
+                query("owner after cursor", bookings -> bookings.findSlice(Specification.where(hasItemOwner(1L))
+                        .and(hasStatus(Status.WAITING)).and(isAfter(CURSOR)), KEYSET_PAGE)),
+                query("last booking", bookings -> bookings.findLastBooking(1L, NOW)),
+                query("next booking", bookings -> bookings.findNextBooking(1L, NOW)),
+                query("last bookings", bookings -> bookings.findLastBookings(List.of(1L, 2L, 3L), NOW)),
+                query("next bookings", bookings -> bookings.findNextBookings(List.of(1L, 2L, 3L), NOW)),
+                query("comment eligibility", bookings -> bookings
+                        .findByItemIdAndBookerIdAndStatusNotAndStartDateBefore(1L, 1L, Status.REJECTED, NOW))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("bookingQueries")
+    void bookingQueryUsesIndex(String name, Consumer<BookingRepository> call) {
+        RECORDED.clear();
+        call.accept(bookingRepository);
+        List<RecordedStatement> statements = RECORDED.stream()
+                .filter(statement -> statement.getSql().toLowerCase(Locale.ROOT).contains("bookings"))
+                .collect(Collectors.toList());
+        RECORDED.clear();
+
+        Assertions.assertFalse(statements.isEmpty(), () -> "No booking query recorded for " + name);
+        for (RecordedStatement statement : statements) {
+            String plan = String.join("\n", jdbcTemplate.queryForList("explain " + statement.getSql(), String.class,
+                    statement.getParameters().values().toArray())).toLowerCase(Locale.ROOT);
+
+            Assertions.assertFalse(plan.contains("bookings.tablescan") || plan.contains("seq scan on bookings"),
+                    () -> "Full scan of bookings for " + name + ": " + statement.getSql() + "\n" + plan);
+        }
+    }
+
+    private static Arguments query(String name, Consumer<BookingRepository> call) {
+        return Arguments.of(name, call);
+    }
+
+    private boolean isPostgres() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+    }
+
+    private static class RecordedStatement {
+        private final String sql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+
+        RecordedStatement(String sql) {
+            this.sql = sql;
+        }
+
+        String getSql() {
+            return sql;
+        }
+
+        Map<Integer, Object> getParameters() {
+            return parameters;
+        }
+    }
+
+    /**
+     * Wraps the data source so every prepared statement that is executed is recorded with its bound values.
+     */
+    @TestConfiguration
+    static class RecordingConfig {
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource((DataSource) bean) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return recording(super.getConnection());
+                        }
+                    };
+                }
+            };
+        }
+
+        private static Connection recording(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (method.getName().equals("prepareStatement")) {
+                            return recording((PreparedStatement) result, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private static PreparedStatement recording(PreparedStatement statement, String sql) {
+            RecordedStatement recorded = new RecordedStatement(sql);
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                            recorded.getParameters().put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                        } else if (name.startsWith("execute") && args == null) {
+                            RECORDED.add(recorded);
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,28 +1,39 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingInsert;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 import static org.springframework.data.domain.Sort.Direction.DESC;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class BookingRepositoryTest {
 
     @Autowired
@@ -31,6 +42,8 @@ class BookingRepositoryTest {
     private UserRepository userRepository;
     @Autowired
     private ItemRepository itemRepository;
+    @Autowired
+    private TestEntityManager entityManager;
 
     private Item item;
 
@@ -72,10 +85,11 @@ class BookingRepositoryTest {
     void testFindApprovedItems() {
         var booking = createBooking(Status.APPROVED, item, booker, LocalDateTime.now(), LocalDateTime.now());
         var result = bookingRepository
-                .findByBookerIdAndStatusEqualsOrderByStartDateDesc(booker.getId(), Status.APPROVED,
+                .findByBookerIdAndStatusEqualsOrderByStartDateDescIdDesc(booker.getId(), Status.APPROVED,
                         PageRequest.of(0, 10, Sort.by(DESC, "id")));
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1, result.getTotalElements());
+        Assertions.assertEquals(1, result.getNumberOfElements());
+        Assertions.assertFalse(result.hasNext());
         Assertions.assertEquals(booking.getId(), result.getContent().get(0).getId());
         Assertions.assertEquals(booking.getStatus(), result.getContent().get(0).getStatus());
     }
@@ -83,9 +97,10 @@ class BookingRepositoryTest {
     @Test
     void testFindPendingItems() {
         var booking = createBooking(Status.WAITING, item, booker, LocalDateTime.now(), LocalDateTime.now());
-        var result = bookingRepository.findByBookerIdAndStatusEqualsOrderByStartDateDesc(booker.getId(), Status.WAITING, Pageable.unpaged());
+        var result = bookingRepository.findByBookerIdAndStatusEqualsOrderByStartDateDescIdDesc(booker.getId(), Status.WAITING, Pageable.unpaged());
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1, result.getTotalElements());
+        Assertions.assertEquals(1, result.getNumberOfElements());
+        Assertions.assertFalse(result.hasNext());
         Assertions.assertEquals(booking.getId(), result.getContent().get(0).getId());
         Assertions.assertEquals(booking.getStatus(), result.getContent().get(0).getStatus());
     }
@@ -93,9 +108,10 @@ class BookingRepositoryTest {
     @Test
     void testFindOwnerPendingItems() {
         var booking = createBooking(Status.WAITING, item, booker, LocalDateTime.now(), LocalDateTime.now());
-        var result = bookingRepository.findByItemOwnerIdAndStatusEqualsOrderByStartDateDesc(item.getOwnerId(), Status.WAITING, Pageable.unpaged());
+        var result = bookingRepository.findByItemOwnerIdAndStatusEqualsOrderByStartDateDescIdDesc(item.getOwnerId(), Status.WAITING, Pageable.unpaged());
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1, result.getTotalElements());
+        Assertions.assertEquals(1, result.getNumberOfElements());
+        Assertions.assertFalse(result.hasNext());
         Assertions.assertEquals(booking.getId(), result.getContent().get(0).getId());
         Assertions.assertEquals(booking.getStatus(), result.getContent().get(0).getStatus());
     }
@@ -106,9 +122,10 @@ class BookingRepositoryTest {
         var end = LocalDateTime.now().plusDays(1);
         var now = Timestamp.valueOf(LocalDateTime.now());
         var booking = createBooking(Status.WAITING, item, booker, start, end);
-        var result = bookingRepository.findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDesc(booker.getId(), now, now, Pageable.unpaged());
+        var result = bookingRepository.findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDescIdDesc(booker.getId(), now, now, Pageable.unpaged());
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1, result.getTotalElements());
+        Assertions.assertEquals(1, result.getNumberOfElements());
+        Assertions.assertFalse(result.hasNext());
         Assertions.assertEquals(booking.getId(), result.getContent().get(0).getId());
         Assertions.assertEquals(booking.getStatus(), result.getContent().get(0).getStatus());
     }
@@ -121,7 +138,8 @@ class BookingRepositoryTest {
         var booking = createBooking(Status.APPROVED, item, booker, start, end);
         var result = bookingRepository.findByItemOwnerIdAndStartDateBeforeAndEndDateAfterOrderById(item.getOwnerId(), now, now, Pageable.unpaged());
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1, result.getTotalElements());
+        Assertions.assertEquals(1, result.getNumberOfElements());
+        Assertions.assertFalse(result.hasNext());
         Assertions.assertEquals(booking.getId(), result.getContent().get(0).getId());
         Assertions.assertEquals(booking.getStatus(), result.getContent().get(0).getStatus());
     }
@@ -129,9 +147,10 @@ class BookingRepositoryTest {
     @Test
     void testFindCanceledItems() {
         var booking = createBooking(Status.CANCELED, item, booker, LocalDateTime.now(), LocalDateTime.now());
-        var result = bookingRepository.findByBookerIdAndStatusEqualsOrderByStartDateDesc(booker.getId(), Status.CANCELED, Pageable.unpaged());
+        var result = bookingRepository.findByBookerIdAndStatusEqualsOrderByStartDateDescIdDesc(booker.getId(), Status.CANCELED, Pageable.unpaged());
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1, result.getTotalElements());
+        Assertions.assertEquals(1, result.getNumberOfElements());
+        Assertions.assertFalse(result.hasNext());
         Assertions.assertEquals(booking.getId(), result.getContent().get(0).getId());
         Assertions.assertEquals(booking.getStatus(), result.getContent().get(0).getStatus());
     }
@@ -139,9 +158,10 @@ class BookingRepositoryTest {
     @Test
     void testFindRejectedItems() {
         var booking = createBooking(Status.REJECTED, item, booker, LocalDateTime.now(), LocalDateTime.now());
-        var result = bookingRepository.findByBookerIdAndStatusEqualsOrderByStartDateDesc(booker.getId(), Status.REJECTED, Pageable.unpaged());
+        var result = bookingRepository.findByBookerIdAndStatusEqualsOrderByStartDateDescIdDesc(booker.getId(), Status.REJECTED, Pageable.unpaged());
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1, result.getTotalElements());
+        Assertions.assertEquals(1, result.getNumberOfElements());
+        Assertions.assertFalse(result.hasNext());
         Assertions.assertEquals(booking.getId(), result.getContent().get(0).getId());
         Assertions.assertEquals(booking.getStatus(), result.getContent().get(0).getStatus());
     }
@@ -149,9 +169,10 @@ class BookingRepositoryTest {
     @Test
     void testFindOwnerCanceledItems() {
         var booking = createBooking(Status.CANCELED, item, booker, LocalDateTime.now(), LocalDateTime.now());
-        var result = bookingRepository.findByItemOwnerIdAndStatusEqualsOrderByStartDateDesc(item.getOwnerId(), Status.CANCELED, Pageable.unpaged());
+        var result = bookingRepository.findByItemOwnerIdAndStatusEqualsOrderByStartDateDescIdDesc(item.getOwnerId(), Status.CANCELED, Pageable.unpaged());
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1, result.getTotalElements());
+        Assertions.assertEquals(1, result.getNumberOfElements());
+        Assertions.assertFalse(result.hasNext());
         Assertions.assertEquals(booking.getId(), result.getContent().get(0).getId());
         Assertions.assertEquals(booking.getStatus(), result.getContent().get(0).getStatus());
     }
@@ -159,13 +180,159 @@ class BookingRepositoryTest {
     @Test
     void testFindOwnerRejectedItems() {
         var booking = createBooking(Status.REJECTED, item, booker, LocalDateTime.now(), LocalDateTime.now());
-        var result = bookingRepository.findByItemOwnerIdAndStatusEqualsOrderByStartDateDesc(item.getOwnerId(), Status.REJECTED, Pageable.unpaged());
+        var result = bookingRepository.findByItemOwnerIdAndStatusEqualsOrderByStartDateDescIdDesc(item.getOwnerId(), Status.REJECTED, Pageable.unpaged());
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1, result.getTotalElements());
+        Assertions.assertEquals(1, result.getNumberOfElements());
+        Assertions.assertFalse(result.hasNext());
         Assertions.assertEquals(booking.getId(), result.getContent().get(0).getId());
         Assertions.assertEquals(booking.getStatus(), result.getContent().get(0).getStatus());
     }
 
+    @Test
+    void testFindLastAndNextBookingsForItems() {
+        var otherItem = createItem("Brush", "Painting tool", true, booker);
+        var now = LocalDateTime.now();
+        var oldPast = createBooking(Status.APPROVED, item, booker, now.minusDays(5), now.minusDays(4));
+        var lastPast = createBooking(Status.APPROVED, item, booker, now.minusDays(3), now.minusDays(2));
+        createBooking(Status.REJECTED, item, booker, now.minusDays(1), now.plusDays(1));
+        var nextFuture = createBooking(Status.WAITING, item, booker, now.plusDays(2), now.plusDays(3));
+        createBooking(Status.APPROVED, item, booker, now.plusDays(4), now.plusDays(5));
+
+        var itemIds = List.of(item.getId(), otherItem.getId());
+        var last = bookingRepository.findLastBookings(itemIds, Timestamp.valueOf(now));
+        var next = bookingRepository.findNextBookings(itemIds, Timestamp.valueOf(now));
+
+        Assertions.assertEquals(1, last.size());
+        Assertions.assertEquals(lastPast.getId(), last.get(0).getId());
+        Assertions.assertNotEquals(oldPast.getId(), last.get(0).getId());
+        Assertions.assertEquals(1, next.size());
+        Assertions.assertEquals(nextFuture.getId(), next.get(0).getId());
+    }
+
+    @Test
+    void testInsertWaitingOverlap() {
+        var owner = createUser("Bob Builder", "bob@builder.com");
+        var drill = createItem("Drill", "Cordless drill", true, owner);
+        var now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        createBooking(Status.APPROVED, drill, booker, now.plusDays(2), now.plusDays(4));
+
+        Assertions.assertEquals(BookingInsert.Rejection.OVERLAP, bookingRepository.insertWaiting(
+                newBooking(drill.getId(), booker.getId(), now.plusDays(1), now.plusDays(3))).getRejection());
+        Assertions.assertEquals(BookingInsert.Rejection.OVERLAP, bookingRepository.insertWaiting(
+                newBooking(drill.getId(), booker.getId(), now.plusDays(3), now.plusDays(5))).getRejection());
+        Assertions.assertEquals(BookingInsert.Rejection.OVERLAP, bookingRepository.insertWaiting(
+                newBooking(drill.getId(), booker.getId(), now.plusDays(2).plusHours(1), now.plusDays(3))).getRejection());
+        Assertions.assertEquals(BookingInsert.Rejection.OVERLAP, bookingRepository.insertWaiting(
+                newBooking(drill.getId(), booker.getId(), now.plusDays(4), now.plusDays(5))).getRejection());
+        Assertions.assertTrue(bookingRepository.insertWaiting(
+                newBooking(drill.getId(), booker.getId(), now.plusDays(5), now.plusDays(6))).isCreated());
+        Assertions.assertTrue(bookingRepository.insertWaiting(
+                newBooking(drill.getId(), booker.getId(), now, now.plusDays(1))).isCreated());
+    }
+
+    @Test
+    void testInsertWaiting() {
+        var owner = createUser("Bob Builder", "bob@builder.com");
+        var drill = createItem("Drill", "Cordless drill", true, owner);
+        var now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        var created = bookingRepository.insertWaiting(newBooking(drill.getId(), booker.getId(), now.plusDays(1), now.plusDays(2)));
+        Assertions.assertTrue(created.isCreated());
+        Assertions.assertEquals("Drill", created.getBooking().getItem().getName());
+        Assertions.assertEquals(booker.getName(), created.getBooking().getBooker().getName());
+        var saved = bookingRepository.findById(created.getBooking().getId()).orElseThrow();
+        Assertions.assertEquals(Status.WAITING, saved.getStatus());
+        Assertions.assertEquals(owner.getId(), saved.getItemOwnerId());
+
+        Assertions.assertEquals(BookingInsert.Rejection.OVERLAP, bookingRepository.insertWaiting(
+                newBooking(drill.getId(), booker.getId(), now.plusDays(2), now.plusDays(3))).getRejection());
+        Assertions.assertEquals(BookingInsert.Rejection.OWN_ITEM, bookingRepository.insertWaiting(
+                newBooking(drill.getId(), owner.getId(), now.plusDays(5), now.plusDays(6))).getRejection());
+        Assertions.assertEquals(BookingInsert.Rejection.BOOKER_NOT_FOUND, bookingRepository.insertWaiting(
+                newBooking(drill.getId(), 999L, now.plusDays(5), now.plusDays(6))).getRejection());
+        Assertions.assertEquals(BookingInsert.Rejection.ITEM_NOT_AVAILABLE, bookingRepository.insertWaiting(
+                newBooking(item.getId(), booker.getId(), now.plusDays(5), now.plusDays(6))).getRejection());
+        Assertions.assertEquals(BookingInsert.Rejection.ITEM_NOT_FOUND, bookingRepository.insertWaiting(
+                newBooking(999L, booker.getId(), now.plusDays(5), now.plusDays(6))).getRejection());
+    }
+
+    private Booking newBooking(Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end) {
+        return BookingMapper.mapFromDto(BookingRequestDto.builder().itemId(itemId).start(start).end(end).build(),
+                bookerId, Status.WAITING);
+    }
+
+    @Test
+    void testFindBookerBookingsPageInOneQuery() {
+        for (int i = 0; i < 5; i++) {
+            var owner = createUser("Owner " + i, "owner" + i + "@email.com");
+            var ownedItem = createItem("Item " + i, "Description " + i, true, owner);
+            createBooking(Status.APPROVED, ownedItem, booker, LocalDateTime.now().plusDays(i),
+                    LocalDateTime.now().plusDays(i + 1));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        var result = bookingRepository.findByBookerIdOrderByStartDateDescIdDesc(booker.getId(), PageRequest.of(0, 10));
+        result.getContent().forEach(BookingMapper::mapToDto);
+
+        Assertions.assertEquals(5, result.getContent().size());
+        // one query for bookings with items and bookers, one batch query for item comments
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testItemOwnerCopiedOnSave() {
+        var booking = createBooking(Status.WAITING, item, booker, LocalDateTime.now(), LocalDateTime.now().plusDays(1));
+
+        Assertions.assertEquals(item.getOwnerId(), booking.getItemOwnerId());
+        Assertions.assertEquals(List.of(booking.getId()), bookingRepository
+                .findByItemOwnerIdOrderByStartDateDescIdDesc(item.getOwnerId(), PageRequest.of(0, 10))
+                .map(Booking::getId).getContent());
+    }
+
+    @Test
+    void testFindBookerBookingsPartialPageWithoutCount() {
+        for (int i = 0; i < 3; i++) {
+            createBooking(Status.APPROVED, item, booker, LocalDateTime.now().plusDays(i),
+                    LocalDateTime.now().plusDays(i + 1));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        var result = bookingRepository.findByBookerIdOrderByStartDateDescIdDesc(booker.getId(), PageRequest.of(0, 2));
+
+        Assertions.assertEquals(2, result.getNumberOfElements());
+        Assertions.assertTrue(result.hasNext());
+        // the slice reads one extra row instead of issuing a count query
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindSliceAfterCursor() {
+        var now = LocalDateTime.now().withNano(0);
+        var first = createBooking(Status.APPROVED, item, booker, now.plusDays(3), now.plusDays(4));
+        var second = createBooking(Status.APPROVED, item, booker, now.plusDays(2), now.plusDays(3));
+        var third = createBooking(Status.WAITING, item, booker, now.plusDays(2), now.plusDays(3));
+        var page = PageRequest.of(0, 2, Sort.by(Sort.Order.desc("startDate"), Sort.Order.desc("id")));
+
+        var firstSlice = bookingRepository.findSlice(BookingSpecifications.hasBooker(booker.getId()), page);
+        Assertions.assertEquals(List.of(first.getId(), third.getId()),
+                firstSlice.map(Booking::getId).getContent());
+        Assertions.assertTrue(firstSlice.hasNext());
+
+        var cursor = Cursor.of(third.getStartDate().toLocalDateTime(), third.getId());
+        var secondSlice = bookingRepository.findSlice(Specification.where(BookingSpecifications.hasItemOwner(item.getOwnerId()))
+                .and(BookingSpecifications.isAfter(cursor)), page);
+        Assertions.assertEquals(List.of(second.getId()), secondSlice.map(Booking::getId).getContent());
+        Assertions.assertFalse(secondSlice.hasNext());
+    }
+
     @AfterEach
     void tearDown() {
         bookingRepository.deleteAll();
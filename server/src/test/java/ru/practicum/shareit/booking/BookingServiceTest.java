@@ -5,9 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.exceptions.BookingNotAloudException;
@@ -15,13 +16,16 @@ import ru.practicum.shareit.booking.exceptions.BookingNotFoundException;
 import ru.practicum.shareit.booking.exceptions.ItemNotAvailableException;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingInsert;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.cache.EntityCacheProperties;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserResponseDto;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
@@ -44,8 +48,8 @@ public class BookingServiceTest {
     private BookingRepository bookingRepository;
     @Mock
     private UserRepository userRepository;
-    @Mock
-    private ItemRepository itemRepository;
+    @Spy
+    private EntityCache entityCache = new EntityCache(new EntityCacheProperties());
     @InjectMocks
     private BookingService bookingService;
 
@@ -115,12 +119,11 @@ public class BookingServiceTest {
 
     @Test
     public void addBooking_Normal() {
-        when(bookingRepository.save(any(Booking.class))).thenReturn(savedBooking);
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.insertWaiting(any(Booking.class))).thenReturn(BookingInsert.created(savedBooking));
 
         BookingResponseDto result = bookingService.createBooking(bookingRequestDtoToSave, booker.getId());
         assertEquals(savedBookingRequestDto, result);
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -136,9 +139,8 @@ public class BookingServiceTest {
         Throwable e2 = assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingRequestDtoToSave, booker.getId()));
         assertEquals("Booking start date should be before booking end date", e2.getMessage());
 
-        verify(itemRepository, never()).findById(anyLong());
+        verify(bookingRepository, never()).insertWaiting(any(Booking.class));
         verify(userRepository, never()).findById(anyLong());
-        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
@@ -148,65 +150,62 @@ public class BookingServiceTest {
         Throwable e = assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingRequestDtoToSave, booker.getId()));
         assertEquals("Booking start date should be before booking end date", e.getMessage());
 
-        verify(itemRepository, never()).findById(anyLong());
+        verify(bookingRepository, never()).insertWaiting(any(Booking.class));
         verify(userRepository, never()).findById(anyLong());
-        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
     public void addBooking_NoSuchItem() {
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.empty());
+        when(bookingRepository.insertWaiting(any(Booking.class)))
+                .thenReturn(BookingInsert.rejected(BookingInsert.Rejection.ITEM_NOT_FOUND));
 
         Throwable e = assertThrows(ItemNotFoundException.class, () ->
                 bookingService.createBooking(bookingRequestDtoToSave, booker.getId()));
         assertEquals(String.format("Item id %s not found", item.getId()), e.getMessage());
 
         verify(userRepository, never()).findById(anyLong());
-        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
     public void addBooking_ItemMotAvailable() {
-        item.setIsAvailable(false);
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.insertWaiting(any(Booking.class)))
+                .thenReturn(BookingInsert.rejected(BookingInsert.Rejection.ITEM_NOT_AVAILABLE));
 
         Throwable e = assertThrows(ItemNotAvailableException.class, () ->
                 bookingService.createBooking(bookingRequestDtoToSave, booker.getId()));
         assertEquals(String.format("Item id %s not available", item.getId()), e.getMessage());
 
         verify(userRepository, never()).findById(anyLong());
-        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
     public void addBooking_BookingOwnItem() {
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.insertWaiting(any(Booking.class)))
+                .thenReturn(BookingInsert.rejected(BookingInsert.Rejection.OWN_ITEM));
 
         Throwable e = assertThrows(BookingNotAloudException.class, () ->
                 bookingService.createBooking(bookingRequestDtoToSave, item.getOwnerId()));
         assertEquals("Booking own item is not aloud.", e.getMessage());
 
         verify(userRepository, never()).findById(anyLong());
-        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
     public void addBooking_noSuchBooker() {
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.empty());
+        when(bookingRepository.insertWaiting(any(Booking.class)))
+                .thenReturn(BookingInsert.rejected(BookingInsert.Rejection.BOOKER_NOT_FOUND));
 
         Throwable e = assertThrows(UserNotFoundException.class, () ->
                 bookingService.createBooking(bookingRequestDtoToSave, booker.getId()));
         assertEquals(String.format("User id %s not found", booker.getId()), e.getMessage());
 
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
     public void addBooking_ItemBookingOverlap_startBeforeEndWithin() {
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(bookingRepository.findByItemId(item.getId())).thenReturn(bookings);
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(bookingRepository.insertWaiting(any(Booking.class)))
+                .thenReturn(BookingInsert.rejected(BookingInsert.Rejection.OVERLAP));
 
         BookingRequestDto otherBooking = BookingRequestDto.builder()
                 .itemId(item.getId())
@@ -218,14 +217,13 @@ public class BookingServiceTest {
                 bookingService.createBooking(otherBooking, booker.getId()));
         assertEquals("Item is already booked for this period.", e.getMessage());
 
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
     public void addBooking_ItemBookingOverlap_startWithinEndWithin() {
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(bookingRepository.findByItemId(item.getId())).thenReturn(bookings);
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(bookingRepository.insertWaiting(any(Booking.class)))
+                .thenReturn(BookingInsert.rejected(BookingInsert.Rejection.OVERLAP));
 
         BookingRequestDto otherBooking = BookingRequestDto.builder()
                 .itemId(item.getId())
@@ -237,14 +235,13 @@ public class BookingServiceTest {
                 bookingService.createBooking(otherBooking, booker.getId()));
         assertEquals("Item is already booked for this period.", e.getMessage());
 
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
     public void addBooking_ItemBookingOverlap_startWithinEndAfter() {
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(bookingRepository.findByItemId(item.getId())).thenReturn(bookings);
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(bookingRepository.insertWaiting(any(Booking.class)))
+                .thenReturn(BookingInsert.rejected(BookingInsert.Rejection.OVERLAP));
 
         BookingRequestDto otherBooking = BookingRequestDto.builder()
                 .itemId(item.getId())
@@ -256,7 +253,7 @@ public class BookingServiceTest {
                 bookingService.createBooking(otherBooking, booker.getId()));
         assertEquals("Item is already booked for this period.", e.getMessage());
 
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -294,145 +291,170 @@ public class BookingServiceTest {
     @Test
     public void getUserBookings_StateALL() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBookerIdOrderByStartDateDesc(any(), any())).thenReturn(new PageImpl<>(bookings));
+        when(bookingRepository.findByBookerIdOrderByStartDateDescIdDesc(any(), any())).thenReturn(new SliceImpl<>(bookings));
         String state = "ALL";
         int from = 0;
         int size = 10;
 
-        List<BookingResponseDto> result = bookingService.getUserBookings(booker.getId(), state, from, size);
+        List<BookingResponseDto> result = bookingService.getUserBookings(booker.getId(), state, from, size).getContent();
 
         assertEquals(1, result.size());
         assertEquals(savedBookingRequestDto, result.get(0));
 
         verify(bookingRepository, never())
-                .findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(Timestamp.class), any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndEndDateBeforeOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndEndDateBeforeOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndStartDateAfterOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndStartDateAfterOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndStatusEqualsOrderByStartDateDesc(anyLong(), any(Status.class),
+                .findByBookerIdAndStatusEqualsOrderByStartDateDescIdDesc(anyLong(), any(Status.class),
                         any(PageRequest.class));
     }
 
+    @Test
+    public void getUserBookingsAfter_Normal() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
+        when(bookingRepository.findSlice(any(), any(PageRequest.class))).thenReturn(new SliceImpl<>(bookings));
+        String after = Cursor.of(LocalDateTime.now().plusDays(1), 10L).encode();
+
+        List<BookingResponseDto> result = bookingService.getUserBookingsAfter(booker.getId(), "FUTURE", after, 10).getContent();
+
+        assertEquals(1, result.size());
+        assertEquals(savedBookingRequestDto, result.get(0));
+        verify(bookingRepository, never()).findByBookerIdAndStartDateAfterOrderByStartDateDescIdDesc(anyLong(),
+                any(Timestamp.class), any(PageRequest.class));
+    }
+
+    @Test
+    public void getOwnerBookingAfter_WrongCursor() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+
+        Throwable e = assertThrows(ValidationException.class, () ->
+                bookingService.getOwnerBookingAfter(owner.getId(), "ALL", "not a cursor", 10));
+
+        assertEquals("Invalid cursor: not a cursor", e.getMessage());
+        verify(bookingRepository, never()).findSlice(any(), any(PageRequest.class));
+    }
+
     @Test
     public void getUserBookings_StateCURRENT() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
         when(bookingRepository
-                .findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(Timestamp.class), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(bookings));
+                .thenReturn(new SliceImpl<>(bookings));
 
         String state = "CURRENT";
         int from = 0;
         int size = 10;
 
-        List<BookingResponseDto> result = bookingService.getUserBookings(booker.getId(), state, from, size);
+        List<BookingResponseDto> result = bookingService.getUserBookings(booker.getId(), state, from, size).getContent();
 
         assertEquals(1, result.size());
         assertEquals(savedBookingRequestDto, result.get(0));
 
 
         verify(bookingRepository, never())
-                .findByBookerIdOrderByStartDateDesc(anyLong(), any(PageRequest.class));
+                .findByBookerIdOrderByStartDateDescIdDesc(anyLong(), any(PageRequest.class));
 
         verify(bookingRepository, never())
-                .findByBookerIdAndEndDateBeforeOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndEndDateBeforeOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndStartDateAfterOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndStartDateAfterOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndStatusEqualsOrderByStartDateDesc(anyLong(), any(Status.class), any(PageRequest.class));
+                .findByBookerIdAndStatusEqualsOrderByStartDateDescIdDesc(anyLong(), any(Status.class), any(PageRequest.class));
     }
 
     @Test
     public void getUserBookings_StatePAST() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
         when(bookingRepository
-                .findByBookerIdAndEndDateBeforeOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndEndDateBeforeOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(bookings));
+                .thenReturn(new SliceImpl<>(bookings));
 
         String state = "PAST";
         int from = 0;
         int size = 10;
 
-        List<BookingResponseDto> result = bookingService.getUserBookings(booker.getId(), state, from, size);
+        List<BookingResponseDto> result = bookingService.getUserBookings(booker.getId(), state, from, size).getContent();
 
         assertEquals(1, result.size());
         assertEquals(savedBookingRequestDto, result.get(0));
 
         verify(bookingRepository, never())
-                .findByBookerIdOrderByStartDateDesc(anyLong(), any(PageRequest.class));
+                .findByBookerIdOrderByStartDateDescIdDesc(anyLong(), any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(Timestamp.class), any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndStartDateAfterOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndStartDateAfterOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndStatusEqualsOrderByStartDateDesc(anyLong(), any(Status.class), any(PageRequest.class));
+                .findByBookerIdAndStatusEqualsOrderByStartDateDescIdDesc(anyLong(), any(Status.class), any(PageRequest.class));
     }
 
     @Test
     public void getUserBookings_StateFUTURE() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
         when(bookingRepository
-                .findByBookerIdAndStartDateAfterOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndStartDateAfterOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(bookings));
+                .thenReturn(new SliceImpl<>(bookings));
 
         String state = "FUTURE";
         int from = 0;
         int size = 10;
 
-        List<BookingResponseDto> result = bookingService.getUserBookings(booker.getId(), state, from, size);
+        List<BookingResponseDto> result = bookingService.getUserBookings(booker.getId(), state, from, size).getContent();
 
         assertEquals(1, result.size());
         assertEquals(savedBookingRequestDto, result.get(0));
 
         verify(bookingRepository, never())
-                .findByBookerIdOrderByStartDateDesc(anyLong(), any(PageRequest.class));
+                .findByBookerIdOrderByStartDateDescIdDesc(anyLong(), any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(Timestamp.class), any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndEndDateBeforeOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndEndDateBeforeOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndStatusEqualsOrderByStartDateDesc(anyLong(), any(Status.class), any(PageRequest.class));
+                .findByBookerIdAndStatusEqualsOrderByStartDateDescIdDesc(anyLong(), any(Status.class), any(PageRequest.class));
     }
 
     @Test
     public void getUserBookings_StateWAITING() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
         when(bookingRepository
-                .findByBookerIdAndStatusEqualsOrderByStartDateDesc(anyLong(), any(Status.class), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(bookings));
+                .findByBookerIdAndStatusEqualsOrderByStartDateDescIdDesc(anyLong(), any(Status.class), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(bookings));
 
         String state = "WAITING";
         int from = 0;
         int size = 10;
 
-        List<BookingResponseDto> result = bookingService.getUserBookings(booker.getId(), state, from, size);
+        List<BookingResponseDto> result = bookingService.getUserBookings(booker.getId(), state, from, size).getContent();
 
         assertEquals(1, result.size());
         assertEquals(savedBookingRequestDto, result.get(0));
 
         verify(bookingRepository, never())
-                .findByBookerIdOrderByStartDateDesc(anyLong(), any(PageRequest.class));
+                .findByBookerIdOrderByStartDateDescIdDesc(anyLong(), any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(Timestamp.class), any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndEndDateBeforeOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndEndDateBeforeOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndStartDateAfterOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndStartDateAfterOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(PageRequest.class));
     }
 
@@ -440,28 +462,28 @@ public class BookingServiceTest {
     public void getUserBookings_StateREJECTED() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
         when(bookingRepository
-                .findByBookerIdAndStatusEqualsOrderByStartDateDesc(anyLong(), any(Status.class), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(bookings));
+                .findByBookerIdAndStatusEqualsOrderByStartDateDescIdDesc(anyLong(), any(Status.class), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(bookings));
 
         String state = "REJECTED";
         int from = 0;
         int size = 10;
 
-        List<BookingResponseDto> result = bookingService.getUserBookings(booker.getId(), state, from, size);
+        List<BookingResponseDto> result = bookingService.getUserBookings(booker.getId(), state, from, size).getContent();
 
         assertEquals(1, result.size());
         assertEquals(savedBookingRequestDto, result.get(0));
 
         verify(bookingRepository, never())
-                .findByBookerIdOrderByStartDateDesc(anyLong(), any(PageRequest.class));
+                .findByBookerIdOrderByStartDateDescIdDesc(anyLong(), any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(Timestamp.class), any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndEndDateBeforeOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndEndDateBeforeOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndStartDateAfterOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndStartDateAfterOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(PageRequest.class));
     }
 
@@ -479,31 +501,31 @@ public class BookingServiceTest {
         assertEquals("Unknown state: UNSUPPORTED_STATUS", e.getMessage());
 
         verify(bookingRepository, never())
-                .findByBookerIdOrderByStartDateDesc(anyLong(), any(PageRequest.class));
+                .findByBookerIdOrderByStartDateDescIdDesc(anyLong(), any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(Timestamp.class), any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndEndDateBeforeOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndEndDateBeforeOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndStartDateAfterOrderByStartDateDesc(anyLong(), any(Timestamp.class),
+                .findByBookerIdAndStartDateAfterOrderByStartDateDescIdDesc(anyLong(), any(Timestamp.class),
                         any(PageRequest.class));
         verify(bookingRepository, never())
-                .findByBookerIdAndStatusEqualsOrderByStartDateDesc(anyLong(), any(Status.class), any(PageRequest.class));
+                .findByBookerIdAndStatusEqualsOrderByStartDateDescIdDesc(anyLong(), any(Status.class), any(PageRequest.class));
     }
 
     @Test
     public void getOwnerBookings_StateALL() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItemOwnerIdOrderByStartDateDesc(anyLong(), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(bookings));
+        when(bookingRepository.findByItemOwnerIdOrderByStartDateDescIdDesc(anyLong(), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(bookings));
 
         String state = "ALL";
         int from = 0;
         int size = 10;
 
-        List<BookingResponseDto> result = bookingService.getOwnerBooking(booker.getId(), state, from, size);
+        List<BookingResponseDto> result = bookingService.getOwnerBooking(booker.getId(), state, from, size).getContent();
 
         assertEquals(1, result.size());
         assertEquals(savedBookingRequestDto, result.get(0));
@@ -512,13 +534,13 @@ public class BookingServiceTest {
                 .findByItemOwnerIdAndStartDateBeforeAndEndDateAfterOrderById(anyLong(),
                         any(Timestamp.class), any(Timestamp.class), any(PageRequest.class)); //current
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndEndDateBeforeOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndEndDateBeforeOrderByStartDateDescIdDesc(anyLong(),
                         any(Timestamp.class), any(PageRequest.class)); //past
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndStartDateAfterOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndStartDateAfterOrderByStartDateDescIdDesc(anyLong(),
                         any(Timestamp.class), any(PageRequest.class)); //future
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndStatusEqualsOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndStatusEqualsOrderByStartDateDescIdDesc(anyLong(),
                         any(Status.class), any(PageRequest.class)); //waiting, rejected
     }
 
@@ -527,143 +549,143 @@ public class BookingServiceTest {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
         when(bookingRepository.findByItemOwnerIdAndStartDateBeforeAndEndDateAfterOrderById(anyLong(),
                 any(Timestamp.class), any(Timestamp.class), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(bookings));
+                .thenReturn(new SliceImpl<>(bookings));
 
         String state = "CURRENT";
         int from = 0;
         int size = 10;
 
-        List<BookingResponseDto> result = bookingService.getOwnerBooking(booker.getId(), state, from, size);
+        List<BookingResponseDto> result = bookingService.getOwnerBooking(booker.getId(), state, from, size).getContent();
 
         assertEquals(1, result.size());
         assertEquals(savedBookingRequestDto, result.get(0));
 
         verify(bookingRepository, never())
-                .findByItemOwnerIdOrderByStartDateDesc(anyLong(), any(PageRequest.class)); //ALL
+                .findByItemOwnerIdOrderByStartDateDescIdDesc(anyLong(), any(PageRequest.class)); //ALL
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndEndDateBeforeOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndEndDateBeforeOrderByStartDateDescIdDesc(anyLong(),
                         any(Timestamp.class), any(PageRequest.class)); //past
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndStartDateAfterOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndStartDateAfterOrderByStartDateDescIdDesc(anyLong(),
                         any(Timestamp.class), any(PageRequest.class)); //future
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndStatusEqualsOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndStatusEqualsOrderByStartDateDescIdDesc(anyLong(),
                         any(Status.class), any(PageRequest.class)); //waiting, rejected
     }
 
     @Test
     public void getOwnerBookings_StatePast() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItemOwnerIdAndEndDateBeforeOrderByStartDateDesc(anyLong(),
+        when(bookingRepository.findByItemOwnerIdAndEndDateBeforeOrderByStartDateDescIdDesc(anyLong(),
                 any(Timestamp.class), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(bookings));
+                .thenReturn(new SliceImpl<>(bookings));
 
         String state = "PAST";
         int from = 0;
         int size = 10;
 
-        List<BookingResponseDto> result = bookingService.getOwnerBooking(booker.getId(), state, from, size);
+        List<BookingResponseDto> result = bookingService.getOwnerBooking(booker.getId(), state, from, size).getContent();
 
         assertEquals(1, result.size());
         assertEquals(savedBookingRequestDto, result.get(0));
 
         verify(bookingRepository, never())
-                .findByItemOwnerIdOrderByStartDateDesc(anyLong(), any(PageRequest.class)); //ALL
+                .findByItemOwnerIdOrderByStartDateDescIdDesc(anyLong(), any(PageRequest.class)); //ALL
         verify(bookingRepository, never())
                 .findByItemOwnerIdAndStartDateBeforeAndEndDateAfterOrderById(anyLong(),
                         any(Timestamp.class), any(Timestamp.class), any(PageRequest.class)); //current
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndStartDateAfterOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndStartDateAfterOrderByStartDateDescIdDesc(anyLong(),
                         any(Timestamp.class), any(PageRequest.class)); //future
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndStatusEqualsOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndStatusEqualsOrderByStartDateDescIdDesc(anyLong(),
                         any(Status.class), any(PageRequest.class)); //waiting, rejected
     }
 
     @Test
     public void getOwnerBookings_StateFuture() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItemOwnerIdAndStartDateAfterOrderByStartDateDesc(anyLong(),
+        when(bookingRepository.findByItemOwnerIdAndStartDateAfterOrderByStartDateDescIdDesc(anyLong(),
                 any(Timestamp.class), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(bookings));
+                .thenReturn(new SliceImpl<>(bookings));
 
         String state = "FUTURE";
         int from = 0;
         int size = 10;
 
-        List<BookingResponseDto> result = bookingService.getOwnerBooking(booker.getId(), state, from, size);
+        List<BookingResponseDto> result = bookingService.getOwnerBooking(booker.getId(), state, from, size).getContent();
 
         assertEquals(1, result.size());
         assertEquals(savedBookingRequestDto, result.get(0));
 
         verify(bookingRepository, never())
-                .findByItemOwnerIdOrderByStartDateDesc(anyLong(), any(PageRequest.class)); //ALL
+                .findByItemOwnerIdOrderByStartDateDescIdDesc(anyLong(), any(PageRequest.class)); //ALL
         verify(bookingRepository, never())
                 .findByItemOwnerIdAndStartDateBeforeAndEndDateAfterOrderById(anyLong(),
                         any(Timestamp.class), any(Timestamp.class), any(PageRequest.class)); //current
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndEndDateBeforeOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndEndDateBeforeOrderByStartDateDescIdDesc(anyLong(),
                         any(Timestamp.class), any(PageRequest.class)); //Past
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndStatusEqualsOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndStatusEqualsOrderByStartDateDescIdDesc(anyLong(),
                         any(Status.class), any(PageRequest.class)); //waiting, rejected
     }
 
     @Test
     public void getOwnerBookings_StateWaiting() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItemOwnerIdAndStatusEqualsOrderByStartDateDesc(anyLong(),
+        when(bookingRepository.findByItemOwnerIdAndStatusEqualsOrderByStartDateDescIdDesc(anyLong(),
                 any(Status.class), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(bookings));
+                .thenReturn(new SliceImpl<>(bookings));
 
         String state = "WAITING";
         int from = 0;
         int size = 10;
 
-        List<BookingResponseDto> result = bookingService.getOwnerBooking(booker.getId(), state, from, size);
+        List<BookingResponseDto> result = bookingService.getOwnerBooking(booker.getId(), state, from, size).getContent();
 
         assertEquals(1, result.size());
         assertEquals(savedBookingRequestDto, result.get(0));
 
         verify(bookingRepository, never())
-                .findByItemOwnerIdOrderByStartDateDesc(anyLong(), any(PageRequest.class)); //ALL
+                .findByItemOwnerIdOrderByStartDateDescIdDesc(anyLong(), any(PageRequest.class)); //ALL
         verify(bookingRepository, never())
                 .findByItemOwnerIdAndStartDateBeforeAndEndDateAfterOrderById(anyLong(),
                         any(Timestamp.class), any(Timestamp.class), any(PageRequest.class)); //current
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndEndDateBeforeOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndEndDateBeforeOrderByStartDateDescIdDesc(anyLong(),
                         any(Timestamp.class), any(PageRequest.class)); //Past
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndStartDateAfterOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndStartDateAfterOrderByStartDateDescIdDesc(anyLong(),
                         any(Timestamp.class), any(PageRequest.class)); //Future
     }
 
     @Test
     public void getOwnerBookings_StateRejected() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItemOwnerIdAndStatusEqualsOrderByStartDateDesc(anyLong(),
+        when(bookingRepository.findByItemOwnerIdAndStatusEqualsOrderByStartDateDescIdDesc(anyLong(),
                 any(Status.class), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(bookings));
+                .thenReturn(new SliceImpl<>(bookings));
 
         String state = "REJECTED";
         int from = 0;
         int size = 10;
 
-        List<BookingResponseDto> result = bookingService.getOwnerBooking(booker.getId(), state, from, size);
+        List<BookingResponseDto> result = bookingService.getOwnerBooking(booker.getId(), state, from, size).getContent();
 
         assertEquals(1, result.size());
         assertEquals(savedBookingRequestDto, result.get(0));
 
         verify(bookingRepository, never())
-                .findByItemOwnerIdOrderByStartDateDesc(anyLong(), any(PageRequest.class)); //ALL
+                .findByItemOwnerIdOrderByStartDateDescIdDesc(anyLong(), any(PageRequest.class)); //ALL
         verify(bookingRepository, never())
                 .findByItemOwnerIdAndStartDateBeforeAndEndDateAfterOrderById(anyLong(),
                         any(Timestamp.class), any(Timestamp.class), any(PageRequest.class)); //current
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndEndDateBeforeOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndEndDateBeforeOrderByStartDateDescIdDesc(anyLong(),
                         any(Timestamp.class), any(PageRequest.class)); //Past
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndStartDateAfterOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndStartDateAfterOrderByStartDateDescIdDesc(anyLong(),
                         any(Timestamp.class), any(PageRequest.class)); //Future
     }
 
@@ -680,18 +702,18 @@ public class BookingServiceTest {
         assertEquals("Unknown state: UNSUPPORTED_STATUS", e.getMessage());
 
         verify(bookingRepository, never())
-                .findByItemOwnerIdOrderByStartDateDesc(anyLong(), any(PageRequest.class)); //ALL
+                .findByItemOwnerIdOrderByStartDateDescIdDesc(anyLong(), any(PageRequest.class)); //ALL
         verify(bookingRepository, never())
                 .findByItemOwnerIdAndStartDateBeforeAndEndDateAfterOrderById(anyLong(),
                         any(Timestamp.class), any(Timestamp.class), any(PageRequest.class)); //current
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndEndDateBeforeOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndEndDateBeforeOrderByStartDateDescIdDesc(anyLong(),
                         any(Timestamp.class), any(PageRequest.class)); //Past
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndStartDateAfterOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndStartDateAfterOrderByStartDateDescIdDesc(anyLong(),
                         any(Timestamp.class), any(PageRequest.class)); //Future
         verify(bookingRepository, never())
-                .findByItemOwnerIdAndStatusEqualsOrderByStartDateDesc(anyLong(),
+                .findByItemOwnerIdAndStatusEqualsOrderByStartDateDescIdDesc(anyLong(),
                         any(Status.class), any(PageRequest.class)); //waiting, rejected
     }
 
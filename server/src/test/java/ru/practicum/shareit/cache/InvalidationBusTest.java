@@ -0,0 +1,105 @@
+package ru.practicum.shareit.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.exceptions.UserNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two server nodes sharing one database and one in-JVM channel: a write on one node must evict
+ * what the other one cached.
+ */
+public class InvalidationBusTest {
+    private ConfigurableApplicationContext first;
+    private ConfigurableApplicationContext second;
+
+    @BeforeEach
+    public void startNodes() {
+        String name = "invalidation_" + UUID.randomUUID().toString().replace("-", "");
+        first = startNode(name);
+        second = startNode(name);
+    }
+
+    @AfterEach
+    public void stopNodes() {
+        second.close();
+        first.close();
+    }
+
+    @Test
+    public void updateUser_EvictsUserOnOtherNode() {
+        UserService firstUsers = first.getBean(UserService.class);
+        UserService secondUsers = second.getBean(UserService.class);
+        User user = firstUsers.add(User.builder().name("name").email("name@email.ru").build());
+        assertEquals("name", secondUsers.get(user.getId()).getName());
+
+        firstUsers.update(User.builder().id(user.getId()).name("updated name").build());
+
+        assertEquals("updated name", secondUsers.get(user.getId()).getName());
+    }
+
+    @Test
+    public void deleteUser_EvictsUserOnOtherNode() {
+        UserService firstUsers = first.getBean(UserService.class);
+        UserService secondUsers = second.getBean(UserService.class);
+        User user = firstUsers.add(User.builder().name("name").email("deleted@email.ru").build());
+        secondUsers.get(user.getId());
+
+        firstUsers.delete(user.getId());
+
+        assertThrows(UserNotFoundException.class, () -> secondUsers.get(user.getId()));
+    }
+
+    @Test
+    public void updateItem_EvictsItemAndVersionOnOtherNode() {
+        User owner = first.getBean(UserService.class)
+                .add(User.builder().name("owner").email("owner@email.ru").build());
+        ItemService firstItems = first.getBean(ItemService.class);
+        Item item = firstItems.addItem(Item.builder()
+                .name("name")
+                .description("description")
+                .isAvailable(true)
+                .ownerId(owner.getId())
+                .build());
+        ItemService secondItems = second.getBean(ItemService.class);
+        Item cached = secondItems.getCachedItem(item.getId());
+        assertEquals("name", cached.getName());
+
+        firstItems.updateItem(Item.builder().id(item.getId()).ownerId(owner.getId()).name("updated name").build());
+
+        Item updated = secondItems.getCachedItem(item.getId());
+        assertEquals("updated name", updated.getName());
+        assertEquals(cached.getVersion() + 1, updated.getVersion());
+    }
+
+    private ConfigurableApplicationContext startNode(String name) {
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.sql.init.platform=h2",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        // Hibernate closes the JVM-wide JCache manager along with its session factory,
+                        // which would break other test contexts sharing it.
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "--shareit.invalidation.transport=in-jvm",
+                        "--shareit.booking.insert-mode=stepwise",
+                        "--shareit.invalidation.channel=" + name);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class KnownIdsTest {
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private KnownIds knownIds;
+
+    @BeforeEach
+    public void beforeEach() {
+        KnownIdsProperties properties = new KnownIdsProperties();
+        properties.setSettleTime(Duration.ZERO);
+        knownIds = new KnownIds(userRepository, itemRepository, transactionManager, properties);
+    }
+
+    @Test
+    public void isUnknownUser_EveryIdKnownBeforeRebuild() {
+        assertFalse(knownIds.isUnknownUser(5L));
+        assertFalse(knownIds.isUnknownUser(1_000_000L));
+    }
+
+    @Test
+    public void isUnknownUser_AfterRebuild() {
+        rebuild(1L, 2L, 3L, 10L);
+
+        assertFalse(knownIds.isUnknownUser(2L));
+        assertFalse(knownIds.isUnknownUser(10L));
+        assertTrue(knownIds.isUnknownUser(5L));
+        // Possibly created on another node moments ago.
+        assertFalse(knownIds.isUnknownUser(11L));
+        assertTrue(knownIds.isUnknownUser(1_000_000L));
+    }
+
+    @Test
+    public void isUnknownUser_CreatedOnAnyNode() {
+        rebuild(1L, 10L);
+
+        knownIds.onChange(new EntityChange(EntityChange.Kind.USER_CREATED, 5L));
+
+        assertFalse(knownIds.isUnknownUser(5L));
+    }
+
+    @Test
+    public void isUnknownUser_RemembersMissing() {
+        rebuild(1L, 2L, 3L);
+
+        knownIds.userMissing(2L, knownIds.userGeneration());
+        knownIds.onChange(new EntityChange(EntityChange.Kind.USER_DELETED, 3L));
+
+        assertTrue(knownIds.isUnknownUser(2L));
+        assertTrue(knownIds.isUnknownUser(3L));
+        assertFalse(knownIds.isUnknownUser(1L));
+    }
+
+    @Test
+    public void isUnknownUser_CreatedOutOfOrderOnOtherNodes() {
+        knownIds = new KnownIds(userRepository, itemRepository, transactionManager, new KnownIdsProperties());
+        rebuild(1L, 2L, 3L, 10L);
+
+        // Id 12 was announced first; id 11 may still be on its way.
+        knownIds.onChange(new EntityChange(EntityChange.Kind.USER_CREATED, 12L));
+
+        assertFalse(knownIds.isUnknownUser(11L));
+        // Nothing has settled yet, so filter misses are not trusted.
+        assertFalse(knownIds.isUnknownUser(5L));
+        assertTrue(knownIds.isUnknownUser(1_000_000L));
+    }
+
+    @Test
+    public void isUnknownUser_CreatedDuringLookup() {
+        rebuild(1L, 2L, 3L);
+
+        long generation = knownIds.userGeneration();
+        knownIds.onChange(new EntityChange(EntityChange.Kind.USER_CREATED, 4L));
+        knownIds.userMissing(4L, generation);
+
+        assertFalse(knownIds.isUnknownUser(4L));
+    }
+
+    private void rebuild(Long... userIds) {
+        when(userRepository.streamAllIds()).thenReturn(Stream.of(userIds));
+        when(itemRepository.streamAllIds()).thenReturn(Stream.empty());
+        knownIds.rebuild();
+    }
+}
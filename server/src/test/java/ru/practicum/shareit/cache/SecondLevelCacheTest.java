@@ -0,0 +1,78 @@
+package ru.practicum.shareit.cache;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction: entities only reach the read-write regions once their transaction commits.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Item item;
+
+    @BeforeEach
+    public void addItem() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.ru")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("name")
+                .description("description")
+                .isAvailable(true)
+                .ownerId(owner.getId())
+                .build());
+    }
+
+    @AfterEach
+    public void cleanDb() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    public void findById_ServedFromCache() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        itemRepository.findById(item.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        Item cachedItem = itemRepository.findById(item.getId()).orElseThrow();
+
+        assertEquals(item.getName(), cachedItem.getName());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void itemChanged_EvictsItem() {
+        itemRepository.findById(item.getId());
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+
+        new SecondLevelCacheEvictor(entityManagerFactory).onChange(new EntityChange(EntityChange.Kind.ITEM, item.getId()));
+
+        assertFalse(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
@@ -26,6 +27,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -230,7 +233,7 @@ public class ItemControllerTest {
     @SneakyThrows
     @Test
     public void getAllItems_Normal() {
-        when(itemService.getAllItems(userId, from, size)).thenReturn(savedItems);
+        when(itemService.getAllItems(userId, from, size)).thenReturn(new SliceImpl<>(savedItems));
 
         String result = mockMvc.perform(get("/items")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -251,7 +254,7 @@ public class ItemControllerTest {
     public void getAllItems_UserIdNull() {
         Long userIdNull = null;
 
-        when(itemService.getAllItems(userIdNull, from, size)).thenReturn(savedItems);
+        when(itemService.getAllItems(userIdNull, from, size)).thenReturn(new SliceImpl<>(savedItems));
 
         String result = mockMvc.perform(get("/items")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -271,7 +274,7 @@ public class ItemControllerTest {
     public void getAllItems_Empty() {
         List<ItemRequestDto> savedItemsDto = new ArrayList<>();
 
-        when(itemService.getAllItems(userId, from, size)).thenReturn(new ArrayList<>());
+        when(itemService.getAllItems(userId, from, size)).thenReturn(new SliceImpl<>(new ArrayList<>()));
 
         String result = mockMvc.perform(get("/items")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -297,6 +300,7 @@ public class ItemControllerTest {
                 .available(savedItem.getIsAvailable())
                 .build();
 
+        when(itemService.getCachedItem(savedItem.getId())).thenReturn(savedItem);
         when(itemService.getItem(savedItem.getId(), userId)).thenReturn(savedItem);
 
         String result = mockMvc.perform(get("/items/{itemId}", savedItem.getId())
@@ -311,11 +315,101 @@ public class ItemControllerTest {
         verify(itemService, times(1)).getItem(savedItem.getId(), userId);
     }
 
+    @SneakyThrows
+    @Test
+    public void getItem_NotModifiedForOtherUser() {
+        Long otherUserId = 2L;
+        when(itemService.getCachedItem(savedItem.getId())).thenReturn(savedItem);
+        when(itemService.getItem(savedItem.getId(), otherUserId)).thenReturn(savedItem);
+
+        String etag = mockMvc.perform(get("/items/{itemId}", savedItem.getId())
+                        .header("X-Sharer-User-Id", otherUserId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        String result = mockMvc.perform(get("/items/{itemId}", savedItem.getId())
+                        .header("X-Sharer-User-Id", otherUserId)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals("", result);
+        verify(itemService, times(1)).getItem(savedItem.getId(), otherUserId);
+    }
+
+    @SneakyThrows
+    @Test
+    public void getItem_NoETagForOwner() {
+        when(itemService.getCachedItem(savedItem.getId())).thenReturn(savedItem);
+        when(itemService.getItem(savedItem.getId(), userId)).thenReturn(savedItem);
+
+        String etag = mockMvc.perform(get("/items/{itemId}", savedItem.getId())
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        assertNull(etag);
+    }
+
+    @SneakyThrows
+    @Test
+    public void getItem_ModifiedAfterVersionMoves() {
+        Long otherUserId = 2L;
+        when(itemService.getCachedItem(savedItem.getId())).thenReturn(savedItem);
+        when(itemService.getItem(savedItem.getId(), otherUserId)).thenReturn(savedItem);
+
+        String etag = mockMvc.perform(get("/items/{itemId}", savedItem.getId())
+                        .header("X-Sharer-User-Id", otherUserId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        savedItem.setVersion(savedItem.getVersion() + 1);
+
+        String newEtag = mockMvc.perform(get("/items/{itemId}", savedItem.getId())
+                        .header("X-Sharer-User-Id", otherUserId)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        assertNotEquals(etag, newEtag);
+        verify(itemService, times(2)).getItem(savedItem.getId(), otherUserId);
+    }
+
+    @SneakyThrows
+    @Test
+    public void getItem_DeletedItemNotFoundWithMatchingTag() {
+        Long otherUserId = 2L;
+        when(itemService.getCachedItem(savedItem.getId())).thenReturn(savedItem)
+                .thenThrow(new ItemNotFoundException(String.format("Item id %s not found", savedItem.getId())));
+        when(itemService.getItem(savedItem.getId(), otherUserId)).thenReturn(savedItem);
+
+        String etag = mockMvc.perform(get("/items/{itemId}", savedItem.getId())
+                        .header("X-Sharer-User-Id", otherUserId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/items/{itemId}", savedItem.getId())
+                        .header("X-Sharer-User-Id", otherUserId)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotFound());
+    }
+
     @SneakyThrows
     @Test
     public void getItem_NoSuchItem() {
         Long itemId = 999999L;
-        when(itemService.getItem(itemId, userId))
+        when(itemService.getCachedItem(itemId))
                 .thenThrow(new ItemNotFoundException(String.format("Item id %s not found", itemId)));
 
         String result = mockMvc.perform(get("/items/{itemId}", itemId)
@@ -327,13 +421,13 @@ public class ItemControllerTest {
                 .getContentAsString();
 
         assertEquals(String.format("{\"error\":\"Item id %s not found\"}", itemId), result);
-        verify(itemService, times(1)).getItem(itemId, userId);
+        verify(itemService, never()).getItem(itemId, userId);
     }
 
     @SneakyThrows
     @Test
     public void searchItem_Normal() {
-        when(itemService.searchItem(text, userId, from, size)).thenReturn(savedItems);
+        when(itemService.searchItem(text, userId, from, size)).thenReturn(new SliceImpl<>(savedItems));
 
         String result = mockMvc.perform(get("/items/search")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -350,10 +444,33 @@ public class ItemControllerTest {
         verify(itemService, times(1)).searchItem(text, userId, from, size);
     }
 
+    @SneakyThrows
+    @Test
+    public void searchItem_WithoutComments() {
+        savedItem.setComments(List.of(savedComment));
+        when(itemService.searchItem(text, userId, from, size)).thenReturn(new SliceImpl<>(savedItems));
+
+        String result = mockMvc.perform(get("/items/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", userId)
+                        .param("text", text)
+                        .param("from", Integer.toString(from))
+                        .param("size", Integer.toString(size))
+                        .param("comments", "false"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(savedItemsDto), result);
+        verify(itemService, times(1)).searchItem(text, userId, from, size);
+    }
+
     @SneakyThrows
     @Test
     public void searchItem_Empty() {
         List<ItemRequestDto> savedItemsDto = new ArrayList<>();
+        when(itemService.searchItem(text, userId, from, size)).thenReturn(new SliceImpl<>(new ArrayList<>()));
 
         String result = mockMvc.perform(get("/items/search")
                         .contentType(MediaType.APPLICATION_JSON)
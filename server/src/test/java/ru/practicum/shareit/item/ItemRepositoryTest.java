@@ -6,7 +6,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -23,6 +25,8 @@ public class ItemRepositoryTest {
     private ItemRepository itemRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private CommentRepository commentRepository;
 
     private User savedUser1;
     private User savedUser2;
@@ -95,23 +99,78 @@ public class ItemRepositoryTest {
     @Test
     public void findItem_Normal() {
         Item expectedItem = Item.builder()
-                .name(item2.getName())
-                .description(item2.getDescription())
-                .isAvailable(item2.getIsAvailable())
-                .ownerId(item2.getOwnerId())
+                .name(item1.getName())
+                .description(item1.getDescription())
+                .isAvailable(item1.getIsAvailable())
+                .ownerId(item1.getOwnerId())
                 .build();
 
-        String text = "oth"; // "other"
+        String text = "DESC"; // "description"
 
         List<Item> savedItems = itemRepository
-                .findItemByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndIsAvailableIsTrue(text, text, page)
+                .searchAvailableItems("%" + text + "%", text + "%", page)
                 .getContent();
 
-        assertEquals(1, savedItems.size());
         assertEquals(1, savedItems.size());
         assertEquals(expectedItem.getName(), savedItems.get(0).getName());
         assertEquals(expectedItem.getDescription(), savedItems.get(0).getDescription());
         assertEquals(expectedItem.getIsAvailable(), savedItems.get(0).getIsAvailable());
         assertEquals(expectedItem.getOwnerId(), savedItems.get(0).getOwnerId());
     }
+
+    @Test
+    public void findItem_UnavailableNameMatchNotFound() {
+        String text = "OTH"; // "other name", not available
+
+        List<Item> savedItems = itemRepository
+                .searchAvailableItems("%" + text + "%", text + "%", page)
+                .getContent();
+
+        assertTrue(savedItems.isEmpty());
+    }
+
+    @Test
+    public void findItem_RankedByNameMatch() {
+        Item descriptionMatch = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("power tool")
+                .isAvailable(true)
+                .ownerId(savedUser1.getId())
+                .build());
+        Item nameMatch = itemRepository.save(Item.builder()
+                .name("super power bank")
+                .description("battery")
+                .isAvailable(true)
+                .ownerId(savedUser1.getId())
+                .build());
+        Item namePrefixMatch = itemRepository.save(Item.builder()
+                .name("powerline adapter")
+                .description("network")
+                .isAvailable(true)
+                .ownerId(savedUser1.getId())
+                .build());
+
+        String text = "POWER";
+
+        List<Item> savedItems = itemRepository
+                .searchAvailableItems("%" + text + "%", text + "%", page)
+                .getContent();
+
+        assertEquals(3, savedItems.size());
+        assertEquals(namePrefixMatch.getId(), savedItems.get(0).getId());
+        assertEquals(nameMatch.getId(), savedItems.get(1).getId());
+        assertEquals(descriptionMatch.getId(), savedItems.get(2).getId());
+    }
+
+    @Test
+    public void findLockedByCommentAuthor_Normal() {
+        commentRepository.save(Comment.builder().text("comment").item(item1).author(savedUser2).build());
+        commentRepository.save(Comment.builder().text("another comment").item(item1).author(savedUser2).build());
+        commentRepository.save(Comment.builder().text("own comment").item(item2).author(savedUser1).build());
+
+        List<Item> commentedItems = itemRepository.findLockedByCommentAuthor(savedUser2.getId());
+
+        assertEquals(1, commentedItems.size());
+        assertEquals(item1.getId(), commentedItems.get(0).getId());
+    }
 }
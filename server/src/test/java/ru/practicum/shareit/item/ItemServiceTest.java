@@ -6,12 +6,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.cache.EntityCacheProperties;
+import ru.practicum.shareit.cache.InvalidationBus;
+import ru.practicum.shareit.cache.KnownIds;
 import ru.practicum.shareit.item.exceptions.CommentNotAllowedException;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Comment;
@@ -19,6 +24,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -42,6 +48,14 @@ public class ItemServiceTest {
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
+    @Mock
+    private RequestRepository requestRepository;
+    @Mock
+    private InvalidationBus invalidationBus;
+    @Mock
+    private KnownIds knownIds;
+    @Spy
+    private EntityCache entityCache = new EntityCache(new EntityCacheProperties());
     @InjectMocks
     private ItemService itemService;
 
@@ -152,27 +166,30 @@ public class ItemServiceTest {
     public void updateItem_updateNameNormal() {
         itemToUpdate.setName("updated name");
         updatedItem.setName(itemToUpdate.getName());
+        updatedItem.setVersion(savedItem.getVersion() + 1);
 
-        when(itemRepository.findById(itemToUpdate.getId())).thenReturn(Optional.of(savedItem));
+        when(itemRepository.findLockedById(itemToUpdate.getId())).thenReturn(Optional.of(savedItem));
         when(itemRepository.save(any(Item.class))).thenReturn(updatedItem);
 
         Item updatedItem = itemService.updateItem(itemToUpdate);
         assertEquals(savedItem, updatedItem);
-        verify(itemRepository, times(1)).findById(itemToUpdate.getId());
+        verify(itemRepository, times(1)).findLockedById(itemToUpdate.getId());
         verify(itemRepository, times(1)).save(any(Item.class));
+        verify(invalidationBus, times(1)).itemChanged(itemToUpdate.getId());
     }
 
     @Test
     public void updateItem_updateDescriptionNormal() {
         itemToUpdate.setDescription("updated description");
         updatedItem.setDescription(itemToUpdate.getDescription());
+        updatedItem.setVersion(savedItem.getVersion() + 1);
 
-        when(itemRepository.findById(itemToUpdate.getId())).thenReturn(Optional.of(savedItem));
+        when(itemRepository.findLockedById(itemToUpdate.getId())).thenReturn(Optional.of(savedItem));
         when(itemRepository.save(any(Item.class))).thenReturn(updatedItem);
 
         Item updatedItem = itemService.updateItem(itemToUpdate);
         assertEquals(savedItem, updatedItem);
-        verify(itemRepository, times(1)).findById(itemToUpdate.getId());
+        verify(itemRepository, times(1)).findLockedById(itemToUpdate.getId());
         verify(itemRepository, times(1)).save(any(Item.class));
     }
 
@@ -180,13 +197,14 @@ public class ItemServiceTest {
     public void updateItem_updateAvailableNormal() {
         itemToUpdate.setIsAvailable(false);
         updatedItem.setIsAvailable(itemToUpdate.getIsAvailable());
+        updatedItem.setVersion(savedItem.getVersion() + 1);
 
-        when(itemRepository.findById(itemToUpdate.getId())).thenReturn(Optional.of(savedItem));
+        when(itemRepository.findLockedById(itemToUpdate.getId())).thenReturn(Optional.of(savedItem));
         when(itemRepository.save(any(Item.class))).thenReturn(updatedItem);
 
         Item updatedItem = itemService.updateItem(itemToUpdate);
         assertEquals(savedItem, updatedItem);
-        verify(itemRepository, times(1)).findById(itemToUpdate.getId());
+        verify(itemRepository, times(1)).findLockedById(itemToUpdate.getId());
         verify(itemRepository, times(1)).save(any(Item.class));
     }
 
@@ -195,11 +213,11 @@ public class ItemServiceTest {
         itemToUpdate.setIsAvailable(false);
         itemToUpdate.setId(9999L);
 
-        when(itemRepository.findById(itemToUpdate.getId())).thenReturn(Optional.empty());
+        when(itemRepository.findLockedById(itemToUpdate.getId())).thenReturn(Optional.empty());
 
         Throwable e = assertThrows(ItemNotFoundException.class, () -> itemService.updateItem(itemToUpdate));
         assertEquals(String.format("Item id %s not found", itemToUpdate.getId()), e.getMessage());
-        verify(itemRepository, times(1)).findById(itemToUpdate.getId());
+        verify(itemRepository, times(1)).findLockedById(itemToUpdate.getId());
         verify(itemRepository, times(0)).save(any(Item.class));
     }
 
@@ -208,40 +226,46 @@ public class ItemServiceTest {
         itemToUpdate.setIsAvailable(false);
         itemToUpdate.setOwnerId(9999L);
 
-        when(itemRepository.findById(itemToUpdate.getId())).thenReturn(Optional.of(savedItem));
+        when(itemRepository.findLockedById(itemToUpdate.getId())).thenReturn(Optional.of(savedItem));
 
         Throwable e = assertThrows(ItemNotFoundException.class, () -> itemService.updateItem(itemToUpdate));
         assertEquals(String.format("Item id %s not found", itemToUpdate.getId()), e.getMessage());
-        verify(itemRepository, times(1)).findById(itemToUpdate.getId());
+        verify(itemRepository, times(1)).findLockedById(itemToUpdate.getId());
         verify(itemRepository, never()).save(any(Item.class));
     }
 
     @Test
     public void getAllItems_OwnerNormal() {
         when(itemRepository.findAllByOwnerIdOrderById(anyLong(), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(savedItems));
-        when(bookingRepository.findLastBooking(anyLong(), any(Timestamp.class)))
+                .thenReturn(new SliceImpl<>(savedItems));
+        when(bookingRepository.findLastBookings(anyCollection(), any(Timestamp.class)))
                 .thenReturn(lastBookings);
-        when(bookingRepository.findNextBooking(anyLong(), any(Timestamp.class)))
+        when(bookingRepository.findNextBookings(anyCollection(), any(Timestamp.class)))
                 .thenReturn(nextBookings);
         int from = 0;
         int size = 10;
 
-        List<Item> result = itemService.getAllItems(user.getId(), from, size);
+        List<Item> result = itemService.getAllItems(user.getId(), from, size).getContent();
         assertEquals(savedItems, result);
+        assertEquals(lastBooking, result.get(0).getLastBooking());
+        assertEquals(nextBooking, result.get(0).getNextBooking());
+        verify(bookingRepository, times(1)).findLastBookings(anyCollection(), any(Timestamp.class));
+        verify(bookingRepository, times(1)).findNextBookings(anyCollection(), any(Timestamp.class));
+        verify(bookingRepository, never()).findLastBooking(anyLong(), any(Timestamp.class));
+        verify(bookingRepository, never()).findNextBooking(anyLong(), any(Timestamp.class));
     }
 
     @Test
     public void getAllItems_Normal() {
         Long userIdNull = null;
-        when(itemRepository.findAll(any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(savedItems));
+        when(itemRepository.findAllByOrderById(any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(savedItems));
         int from = 0;
         int size = 10;
 
-        List<Item> result = itemService.getAllItems(userIdNull, from, size);
+        List<Item> result = itemService.getAllItems(userIdNull, from, size).getContent();
         assertEquals(savedItems, result);
-        verify(itemRepository, times(1)).findAll(any(PageRequest.class));
+        verify(itemRepository, times(1)).findAllByOrderById(any(PageRequest.class));
         verify(itemRepository, never()).findAllByOwnerIdOrderById(anyLong(), any(PageRequest.class));
         verify(bookingRepository, never()).findLastBooking(anyLong(), any(Timestamp.class));
         verify(bookingRepository, never()).findNextBooking(anyLong(), any(Timestamp.class));
@@ -250,11 +274,11 @@ public class ItemServiceTest {
     @Test
     public void getAllItems_OwnerNoBookingsNormal() {
         when(itemRepository.findAllByOwnerIdOrderById(anyLong(), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(savedItems));
+                .thenReturn(new SliceImpl<>(savedItems));
         int from = 0;
         int size = 10;
 
-        List<Item> result = itemService.getAllItems(user.getId(), from, size);
+        List<Item> result = itemService.getAllItems(user.getId(), from, size).getContent();
         assertEquals(savedItems, result);
     }
 
@@ -290,24 +314,45 @@ public class ItemServiceTest {
                 itemService.getItem(savedItem.getId(), savedItem.getOwnerId()));
 
         assertEquals(String.format("Item id %s not found", savedItem.getId()), e.getMessage());
+        verify(knownIds, times(1)).itemMissing(eq(savedItem.getId()), anyLong());
         verify(bookingRepository, never()).findLastBooking(anyLong(), any(Timestamp.class));
         verify(bookingRepository, never()).findNextBooking(anyLong(), any(Timestamp.class));
     }
 
+    @Test
+    public void getItem_UnknownId() {
+        when(knownIds.isUnknownItem(savedItem.getId())).thenReturn(true);
+
+        Throwable e = assertThrows(ItemNotFoundException.class, () ->
+                itemService.getItem(savedItem.getId(), savedItem.getOwnerId()));
+
+        assertEquals(String.format("Item id %s not found", savedItem.getId()), e.getMessage());
+        assertEquals(0, e.getStackTrace().length);
+        verify(itemRepository, never()).findById(anyLong());
+    }
+
     @Test
     public void searchItem_Normal() {
-        when(itemRepository
-                .findItemByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndIsAvailableIsTrue(any(), any(), any()))
-                .thenReturn(new PageImpl<>(savedItems));
-        when(bookingRepository.findLastBooking(anyLong(), any(Timestamp.class)))
+        when(itemRepository.searchAvailableItems("%TEXT%", "TEXT%", PageRequest.of(0, 10)))
+                .thenReturn(new SliceImpl<>(savedItems));
+        when(bookingRepository.findLastBookings(anyCollection(), any(Timestamp.class)))
                 .thenReturn(lastBookings);
-        when(bookingRepository.findNextBooking(anyLong(), any(Timestamp.class)))
+        when(bookingRepository.findNextBookings(anyCollection(), any(Timestamp.class)))
                 .thenReturn(nextBookings);
         int from = 0;
         int size = 10;
         String text = "text";
 
-        List<Item> result = itemService.searchItem(text, user.getId(), from, size);
+        List<Item> result = itemService.searchItem(text, user.getId(), from, size).getContent();
+        assertEquals(savedItems, result);
+    }
+
+    @Test
+    public void searchItem_EscapesLikeWildcards() {
+        when(itemRepository.searchAvailableItems("%50\\%\\_OFF%", "50\\%\\_OFF%", PageRequest.of(0, 10)))
+                .thenReturn(new SliceImpl<>(savedItems));
+
+        List<Item> result = itemService.searchItem("50%_off", user.getId(), 0, 10).getContent();
         assertEquals(savedItems, result);
     }
 
@@ -317,22 +362,20 @@ public class ItemServiceTest {
         int from = 0;
         int size = 10;
 
-        List<Item> result = itemService.searchItem(text, user.getId(), from, size);
+        List<Item> result = itemService.searchItem(text, user.getId(), from, size).getContent();
         assertTrue(result.isEmpty());
 
         text = "   ";
 
-        result = itemService.searchItem(text, user.getId(), from, size);
+        result = itemService.searchItem(text, user.getId(), from, size).getContent();
         assertTrue(result.isEmpty());
 
         text = null;
 
-        result = itemService.searchItem(text, user.getId(), from, size);
+        result = itemService.searchItem(text, user.getId(), from, size).getContent();
         assertTrue(result.isEmpty());
 
-        verify(itemRepository, never())
-                .findItemByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndIsAvailableIsTrue(anyString(),
-                        anyString(), any(PageRequest.class));
+        verify(itemRepository, never()).searchAvailableItems(anyString(), anyString(), any(PageRequest.class));
     }
 
     @Test
@@ -369,7 +412,7 @@ public class ItemServiceTest {
 
     @Test
     public void addComment_Normal() {
-        when(itemRepository.findById(commentToSave.getItem().getId()))
+        when(itemRepository.findLockedById(commentToSave.getItem().getId()))
                 .thenReturn(Optional.of(savedItem));
         when(userRepository.findById(commentToSave.getAuthor().getId()))
                 .thenReturn(Optional.of(user));
@@ -387,9 +430,28 @@ public class ItemServiceTest {
         verify(commentRepository, times(1)).save(any(Comment.class));
     }
 
+    @Test
+    public void addComment_AttachesRepositoryCopies() {
+        entityCache.findItem(savedItem.getId(), id -> Optional.of(savedItem));
+        entityCache.findUser(user.getId(), id -> Optional.of(user));
+        Item item = Item.builder().id(savedItem.getId()).ownerId(savedItem.getOwnerId()).build();
+        User author = User.builder().id(user.getId()).build();
+        when(itemRepository.findLockedById(savedItem.getId())).thenReturn(Optional.of(item));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(author));
+        when(bookingRepository.findByItemIdAndBookerIdAndStatusNotAndStartDateBefore(anyLong(),
+                anyLong(), any(Status.class), any(Timestamp.class))).thenReturn(List.of(lastBooking));
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Comment result = itemService.addComment(commentToSave);
+
+        assertSame(item, result.getItem());
+        assertSame(author, result.getAuthor());
+        assertEquals(1, item.getVersion());
+    }
+
     @Test
     public void addComment_noSuchItem() {
-        when(itemRepository.findById(commentToSave.getItem().getId())).thenReturn(Optional.empty());
+        when(itemRepository.findLockedById(commentToSave.getItem().getId())).thenReturn(Optional.empty());
 
         Throwable e = assertThrows(ItemNotFoundException.class, () ->
                 itemService.addComment(commentToSave));
@@ -404,7 +466,7 @@ public class ItemServiceTest {
 
     @Test
     public void addComment_noSuchUser() {
-        when(itemRepository.findById(commentToSave.getItem().getId())).thenReturn(Optional.of(savedItem));
+        when(itemRepository.findLockedById(commentToSave.getItem().getId())).thenReturn(Optional.of(savedItem));
         when(userRepository.findById(commentToSave.getAuthor().getId())).thenReturn(Optional.empty());
 
         Throwable e = assertThrows(UserNotFoundException.class, () ->
@@ -419,7 +481,7 @@ public class ItemServiceTest {
 
     @Test
     public void addComment_userDidNotBook() {
-        when(itemRepository.findById(commentToSave.getItem().getId())).thenReturn(Optional.of(savedItem));
+        when(itemRepository.findLockedById(commentToSave.getItem().getId())).thenReturn(Optional.of(savedItem));
         when(userRepository.findById(commentToSave.getAuthor().getId())).thenReturn(Optional.of(user));
 
         Throwable e = assertThrows(CommentNotAllowedException.class, () ->
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
@@ -111,7 +112,7 @@ public class RequestControllerTest {
         List<ItemRequestResponseDto> requests = new ArrayList<>();
         requests.add(savedItemRequestRequestDto);
 
-        when(requestService.findUserRequest(userId, from, size)).thenReturn(requests);
+        when(requestService.findUserRequest(userId, from, size)).thenReturn(new SliceImpl<>(requests));
 
         String result = mockMvc.perform(get("/requests")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -129,6 +130,7 @@ public class RequestControllerTest {
     @SneakyThrows
     @Test
     public void getOwnRequests_Empty() {
+        when(requestService.findUserRequest(userId, from, size)).thenReturn(new SliceImpl<>(new ArrayList<>()));
         String result = mockMvc.perform(get("/requests")
                         .contentType(MediaType.APPLICATION_JSON)
                         .param("from", from.toString())
@@ -145,7 +147,7 @@ public class RequestControllerTest {
     @SneakyThrows
     @Test
     public void getAllRequests_Normal() {
-        when(requestService.findAllRequests(userId, from, size)).thenReturn(requests);
+        when(requestService.findAllRequests(userId, from, size)).thenReturn(new SliceImpl<>(requests));
 
         String result = mockMvc.perform(get("/requests/all")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -23,6 +25,8 @@ public class RequestRepositoryTest {
     private UserRepository userRepository;
     @Autowired
     private RequestRepository requestRepository;
+    @Autowired
+    private ItemRepository itemRepository;
 
     private User savedUser1;
     private User savedUser2;
@@ -96,4 +100,17 @@ public class RequestRepositoryTest {
         assertEquals(1, requests.size());
         assertEquals(savedRequest3, requests.get(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void findLockedByItemOwner_Normal() {
+        itemRepository.save(Item.builder().name("name").description("description").isAvailable(true)
+                .ownerId(savedUser2.getId()).request(savedRequest1).build());
+        itemRepository.save(Item.builder().name("other name").description("description").isAvailable(true)
+                .ownerId(savedUser1.getId()).request(savedRequest2).build());
+
+        List<Request> answeredRequests = requestRepository.findLockedByItemOwner(savedUser2.getId());
+
+        assertEquals(1, answeredRequests.size());
+        assertEquals(savedRequest1.getId(), answeredRequests.get(0).getId());
+    }
+}
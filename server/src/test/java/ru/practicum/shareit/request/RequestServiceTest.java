@@ -5,9 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.cache.EntityCacheProperties;
+import ru.practicum.shareit.cache.InvalidationBus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
@@ -37,6 +41,12 @@ public class RequestServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private EntityCache entityCache = new EntityCache(new EntityCacheProperties());
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
     @InjectMocks
     private RequestService requestService;
 
@@ -122,11 +132,11 @@ public class RequestServiceTest {
     @Test
     public void findUserRequest_Normal() {
         when(userRepository.findById(requester.getId())).thenReturn(Optional.of(requester));
-        when(requestRepository.findAllByRequesterId(any(), any())).thenReturn(new PageImpl<>(requests));
+        when(requestRepository.findAllByRequesterId(any(), any())).thenReturn(new SliceImpl<>(requests));
         int from = 0;
         int size = 10;
 
-        List<ItemRequestResponseDto> result = requestService.findUserRequest(requester.getId(), from, size);
+        List<ItemRequestResponseDto> result = requestService.findUserRequest(requester.getId(), from, size).getContent();
 
         assertEquals(1, result.size());
         assertEquals(savedItemRequestRequestDto, result.get(0));
@@ -148,11 +158,11 @@ public class RequestServiceTest {
     @Test
     public void findUserRequest_Empty() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(requester));
-        when(requestRepository.findAllByRequesterId(anyLong(), any(PageRequest.class))).thenReturn(new PageImpl<>(new ArrayList<>()));
+        when(requestRepository.findAllByRequesterId(anyLong(), any(PageRequest.class))).thenReturn(new SliceImpl<>(new ArrayList<>()));
         int from = 0;
         int size = 10;
 
-        List<ItemRequestResponseDto> result = requestService.findUserRequest(requester.getId(), from, size);
+        List<ItemRequestResponseDto> result = requestService.findUserRequest(requester.getId(), from, size).getContent();
 
         assertTrue(result.isEmpty());
         verify(requestRepository, times(1)).findAllByRequesterId(anyLong(), any(PageRequest.class));
@@ -160,11 +170,11 @@ public class RequestServiceTest {
 
     @Test
     public void findAllRequests_Normal() {
-        when(requestRepository.findAllOrderByCreated(any(), any())).thenReturn(new PageImpl<>(requests));
+        when(requestRepository.findAllOrderByCreated(any(), any())).thenReturn(new SliceImpl<>(requests));
         int from = 0;
         int size = 10;
 
-        List<ItemRequestResponseDto> result = requestService.findAllRequests(requester.getId(), from, size);
+        List<ItemRequestResponseDto> result = requestService.findAllRequests(requester.getId(), from, size).getContent();
 
         assertEquals(1, result.size());
         assertEquals(savedItemRequestRequestDto, result.get(0));
@@ -172,11 +182,11 @@ public class RequestServiceTest {
 
     @Test
     public void findAllRequests_Empty() {
-        when(requestRepository.findAllOrderByCreated(any(), any())).thenReturn(new PageImpl<>(new ArrayList<>()));
+        when(requestRepository.findAllOrderByCreated(any(), any())).thenReturn(new SliceImpl<>(new ArrayList<>()));
         int from = 0;
         int size = 10;
 
-        List<ItemRequestResponseDto> result = requestService.findAllRequests(requester.getId(), from, size);
+        List<ItemRequestResponseDto> result = requestService.findAllRequests(requester.getId(), from, size).getContent();
 
         assertTrue(result.isEmpty());
     }
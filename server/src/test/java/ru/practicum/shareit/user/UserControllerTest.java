@@ -22,6 +22,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.user.mapper.UserMapper.mapToDto;
 
 
 @WebMvcTest
@@ -57,7 +58,7 @@ public class UserControllerTest {
                 .getContentAsString();
 
         verify(userService, times(1)).add(userToSave);
-        assertEquals(objectMapper.writeValueAsString(userToSave), result);
+        assertEquals(objectMapper.writeValueAsString(mapToDto(userToSave)), result);
     }
 
     @SneakyThrows
@@ -85,7 +86,7 @@ public class UserControllerTest {
                 .getContentAsString();
 
         verify(userService, times(1)).update(any(User.class));
-        assertEquals(objectMapper.writeValueAsString(userToReturn), result);
+        assertEquals(objectMapper.writeValueAsString(mapToDto(userToReturn)), result);
     }
 
     @SneakyThrows
@@ -113,7 +114,7 @@ public class UserControllerTest {
                 .getContentAsString();
 
         verify(userService, times(1)).update(any(User.class));
-        assertEquals(objectMapper.writeValueAsString(userToReturn), result);
+        assertEquals(objectMapper.writeValueAsString(mapToDto(userToReturn)), result);
     }
 
     @SneakyThrows
@@ -150,7 +151,32 @@ public class UserControllerTest {
                 .getContentAsString();
 
         verify(userService, times(1)).get(userId);
-        assertEquals(objectMapper.writeValueAsString(userToReturn), result);
+        assertEquals(objectMapper.writeValueAsString(mapToDto(userToReturn)), result);
+    }
+
+    @SneakyThrows
+    @Test
+    public void getUser_NotModifiedUntilVersionMoves() {
+        User user = User.builder()
+                .id(1L)
+                .name("name")
+                .email("email@email.com")
+                .build();
+        when(userService.get(user.getId())).thenReturn(user);
+
+        String etag = mockMvc.perform(get("/users/{userId}", user.getId()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        mockMvc.perform(get("/users/{userId}", user.getId())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        user.setVersion(user.getVersion() + 1);
+
+        mockMvc.perform(get("/users/{userId}", user.getId())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk());
     }
 
     @SneakyThrows
@@ -175,7 +201,7 @@ public class UserControllerTest {
                 .getContentAsString();
 
         verify(userService, times(1)).findAll();
-        assertEquals(objectMapper.writeValueAsString(users), result);
+        assertEquals(objectMapper.writeValueAsString(List.of(mapToDto(userToReturn))), result);
     }
 
     @SneakyThrows
@@ -4,7 +4,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.cache.EntityCacheProperties;
+import ru.practicum.shareit.cache.EntityChange;
+import ru.practicum.shareit.cache.InvalidationBus;
+import ru.practicum.shareit.cache.KnownIds;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.exceptions.EmailRegisteredException;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
@@ -25,6 +35,16 @@ public class UserServiceTest {
 
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private RequestRepository requestRepository;
+    @Mock
+    private InvalidationBus invalidationBus;
+    @Mock
+    private KnownIds knownIds;
+    @Spy
+    private EntityCache entityCache = new EntityCache(new EntityCacheProperties());
     @InjectMocks
     private UserService userService;
 
@@ -66,24 +86,52 @@ public class UserServiceTest {
                 .email(savedUser.getEmail())
                 .build();
 
-        when(userRepository.findById(updatedUser.getId())).thenReturn(Optional.of(savedUser));
+        when(userRepository.findLockedById(updatedUser.getId())).thenReturn(Optional.of(savedUser));
         when(userRepository.save(any(User.class))).thenReturn(expectedUser);
 
         User result = userService.update(updatedUser);
-        verify(userRepository, times(1)).findById(updatedUser.getId());
+        verify(userRepository, times(1)).findLockedById(updatedUser.getId());
         verify(userRepository, times(1)).save(any(User.class));
         assertEquals(expectedUser, result);
     }
 
+    @Test
+    public void updateUser_updateName_MovesCommentedItemVersions() {
+        User savedUser = User.builder().id(1L).name("name").email("email@email.ru").build();
+        Item commentedItem = Item.builder().id(2L).ownerId(3L).build();
+        when(itemRepository.findLockedByCommentAuthor(savedUser.getId())).thenReturn(List.of(commentedItem));
+        when(userRepository.findLockedById(savedUser.getId())).thenReturn(Optional.of(savedUser));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        User result = userService.update(User.builder().id(savedUser.getId()).name("updated name").build());
+
+        assertEquals(1, result.getVersion());
+        assertEquals(1, commentedItem.getVersion());
+        verify(invalidationBus, times(1)).itemChanged(commentedItem.getId());
+    }
+
+    @Test
+    public void updateUser_updateEmail_KeepsCommentedItemVersions() {
+        User savedUser = User.builder().id(1L).name("name").email("email@email.ru").build();
+        when(userRepository.findLockedById(savedUser.getId())).thenReturn(Optional.of(savedUser));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        User result = userService.update(User.builder().id(savedUser.getId()).email("new@email.ru").build());
+
+        assertEquals(1, result.getVersion());
+        verify(itemRepository, never()).findLockedByCommentAuthor(anyLong());
+        verify(invalidationBus, never()).itemChanged(anyLong());
+    }
+
     @Test
     public void userUpdate_wrongId() {
         User user = User.builder().id(9999L).build();
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.empty());
+        when(userRepository.findLockedById(user.getId())).thenReturn(Optional.empty());
 
         Throwable e = assertThrows(UserNotFoundException.class, () -> userService.update(user));
 
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userRepository, times(1)).findLockedById(anyLong());
         verify(userRepository, times(0)).save(any(User.class));
         assertEquals(String.format("User with id %s not found", user.getId()), e.getMessage());
     }
@@ -107,11 +155,11 @@ public class UserServiceTest {
                 .email(savedUser.getEmail())
                 .build();
 
-        when(userRepository.findById(updatedUser.getId())).thenReturn(Optional.of(savedUser));
+        when(userRepository.findLockedById(updatedUser.getId())).thenReturn(Optional.of(savedUser));
         when(userRepository.save(any(User.class))).thenReturn(expectedUser);
 
         User result = userService.update(updatedUser);
-        verify(userRepository, times(1)).findById(updatedUser.getId());
+        verify(userRepository, times(1)).findLockedById(updatedUser.getId());
         verify(userRepository, times(1)).save(any(User.class));
         assertEquals(expectedUser, result);
     }
@@ -135,11 +183,11 @@ public class UserServiceTest {
                 .email(savedUser.getEmail())
                 .build();
 
-        when(userRepository.findById(updatedUser.getId())).thenReturn(Optional.of(savedUser));
+        when(userRepository.findLockedById(updatedUser.getId())).thenReturn(Optional.of(savedUser));
         when(userRepository.save(any(User.class))).thenReturn(expectedUser);
 
         User result = userService.update(updatedUser);
-        verify(userRepository, times(1)).findById(updatedUser.getId());
+        verify(userRepository, times(1)).findLockedById(updatedUser.getId());
         verify(userRepository, times(1)).save(any(User.class));
         assertEquals(expectedUser, result);
     }
@@ -161,13 +209,14 @@ public class UserServiceTest {
                 .id(updatedUser.getId())
                 .name(savedUser.getName())
                 .email(updatedUser.getEmail())
+                .version(savedUser.getVersion() + 1)
                 .build();
 
-        when(userRepository.findById(updatedUser.getId())).thenReturn(Optional.of(savedUser));
+        when(userRepository.findLockedById(updatedUser.getId())).thenReturn(Optional.of(savedUser));
         when(userRepository.save(expectedUser)).thenReturn(expectedUser);
 
         User result = userService.update(updatedUser);
-        verify(userRepository, times(1)).findById(updatedUser.getId());
+        verify(userRepository, times(1)).findLockedById(updatedUser.getId());
         verify(userRepository, times(1)).findByEmailIgnoreCase(updatedUser.getEmail());
         verify(userRepository, times(1)).save(expectedUser);
         assertEquals(expectedUser, result);
@@ -192,11 +241,11 @@ public class UserServiceTest {
                 .email(savedUser.getEmail())
                 .build();
 
-        when(userRepository.findById(updatedUser.getId())).thenReturn(Optional.of(savedUser));
+        when(userRepository.findLockedById(updatedUser.getId())).thenReturn(Optional.of(savedUser));
         when(userRepository.save(any(User.class))).thenReturn(expectedUser);
 
         User result = userService.update(updatedUser);
-        verify(userRepository, times(1)).findById(updatedUser.getId());
+        verify(userRepository, times(1)).findLockedById(updatedUser.getId());
         verify(userRepository, times(0)).findByEmailIgnoreCase(anyString());
         verify(userRepository, times(1)).save(any(User.class));
         assertEquals(expectedUser, result);
@@ -220,11 +269,11 @@ public class UserServiceTest {
                 .email(updatedUser.getEmail())
                 .build();
 
-        when(userRepository.findById(updatedUser.getId())).thenReturn(Optional.of(savedUser));
+        when(userRepository.findLockedById(updatedUser.getId())).thenReturn(Optional.of(savedUser));
         when(userRepository.findByEmailIgnoreCase(updatedUser.getEmail())).thenReturn(otherSavedUser);
 
         Throwable e = assertThrows(EmailRegisteredException.class, () -> userService.update(updatedUser));
-        verify(userRepository, times(1)).findById(updatedUser.getId());
+        verify(userRepository, times(1)).findLockedById(updatedUser.getId());
         verify(userRepository, times(1)).findByEmailIgnoreCase(anyString());
         verify(userRepository, times(0)).save(any(User.class));
         assertEquals("User with such email already registered", e.getMessage());
@@ -243,11 +292,11 @@ public class UserServiceTest {
                 .email(updatedUser.getEmail())
                 .build();
 
-        when(userRepository.findById(updatedUser.getId())).thenReturn(Optional.of(savedUser));
+        when(userRepository.findLockedById(updatedUser.getId())).thenReturn(Optional.of(savedUser));
         when(userRepository.save(savedUser)).thenReturn(savedUser);
 
         User result = userService.update(updatedUser);
-        verify(userRepository, times(1)).findById(updatedUser.getId());
+        verify(userRepository, times(1)).findLockedById(updatedUser.getId());
         verify(userRepository, times(0)).findByEmailIgnoreCase(anyString());
         verify(userRepository, times(1)).save(any(User.class));
 
@@ -272,6 +321,43 @@ public class UserServiceTest {
         assertEquals(expectedUser, savedUser);
     }
 
+    @Test
+    public void getUser_CachedUntilUpdated() {
+        User cachedUser = User.builder()
+                .id(1L)
+                .name("name")
+                .email("email@email.ru")
+                .build();
+        User storedUser = User.builder()
+                .id(cachedUser.getId())
+                .name(cachedUser.getName())
+                .email(cachedUser.getEmail())
+                .build();
+        User renamedUser = User.builder()
+                .id(cachedUser.getId())
+                .name("updated name")
+                .email(cachedUser.getEmail())
+                .build();
+
+        when(userRepository.findById(cachedUser.getId()))
+                .thenReturn(Optional.of(cachedUser), Optional.of(renamedUser));
+        when(userRepository.findLockedById(cachedUser.getId())).thenReturn(Optional.of(storedUser));
+        when(userRepository.save(any(User.class))).thenReturn(renamedUser);
+        doAnswer(invocation -> {
+            entityCache.onChange(new EntityChange(EntityChange.Kind.USER_UPDATED, cachedUser.getId()));
+            return null;
+        }).when(invalidationBus).userChanged(cachedUser.getId());
+
+        userService.get(cachedUser.getId());
+        assertEquals(cachedUser, userService.get(cachedUser.getId()));
+        userService.update(User.builder().id(cachedUser.getId()).name("updated name").build());
+        User result = userService.get(cachedUser.getId());
+
+        verify(userRepository, times(2)).findById(cachedUser.getId());
+        verify(invalidationBus, times(1)).userChanged(cachedUser.getId());
+        assertEquals(renamedUser, result);
+    }
+
     @Test
     public void getUser_NoSuchUser() {
         Long userId = 9999L;
@@ -325,6 +411,22 @@ public class UserServiceTest {
         assertEquals(userToDelete, deletedUser);
     }
 
+    @Test
+    public void delete_MovesVersionsOfCommentedItemsAndAnsweredRequests() {
+        User userToDelete = User.builder().id(1L).name("name").email("email@email.ru").build();
+        Item commentedItem = Item.builder().id(2L).ownerId(3L).build();
+        Request answeredRequest = Request.builder().id(4L).build();
+        when(itemRepository.findLockedByCommentAuthor(userToDelete.getId())).thenReturn(List.of(commentedItem));
+        when(requestRepository.findLockedByItemOwner(userToDelete.getId())).thenReturn(List.of(answeredRequest));
+        when(userRepository.findById(userToDelete.getId())).thenReturn(Optional.of(userToDelete));
+
+        userService.delete(userToDelete.getId());
+
+        assertEquals(1, commentedItem.getVersion());
+        assertEquals(1, answeredRequest.getVersion());
+        verify(userRepository, times(1)).deleteById(userToDelete.getId());
+    }
+
     @Test
     public void delete_NoSuchUser() {
         Long userToDeleteId = 1L;